@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+/**
+ * Configuration class for use in the {@link HtmlParser#parseAll(Iterable, BatchOptions)} and
+ * {@link HtmlParser#parseAll(java.util.stream.Stream, BatchOptions)} methods (and their variants that take a
+ * {@link DocumentResultHandler}), which parse multiple documents in parallel using the same parser configuration.
+ *
+ * As documents are parsed in parallel, entities with a processor must provide a new one for each document with
+ * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)}.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParser
+ * @see DocumentResultHandler
+ */
+public class BatchOptions {
+
+	private int maxDocumentsInFlight = -1;
+	private boolean preserveInputOrder = false;
+
+	/**
+	 * Creates a new `BatchOptions` with the default configuration: documents are parsed in any order, with up to
+	 * twice as many documents in flight as the number of parser threads.
+	 */
+	public BatchOptions() {
+	}
+
+	/**
+	 * Returns the maximum number of documents that can be read and parsed at the same time. Inputs are only consumed
+	 * from the given sequence when a new document can be processed, which keeps the memory usage bounded regardless
+	 * of how many inputs there are.
+	 *
+	 * Defaults to `-1`, i.e. twice the number of threads available to the parser
+	 * (see {@link HtmlParserSettings#getParserThreadCount()}).
+	 *
+	 * @return the maximum number of documents being processed at any given time.
+	 */
+	public int getMaxDocumentsInFlight() {
+		return maxDocumentsInFlight;
+	}
+
+	/**
+	 * Defines the maximum number of documents that can be read and parsed at the same time. Inputs are only consumed
+	 * from the given sequence when a new document can be processed, which keeps the memory usage bounded regardless
+	 * of how many inputs there are.
+	 *
+	 * Defaults to `-1`, i.e. twice the number of threads available to the parser
+	 * (see {@link HtmlParserSettings#getParserThreadCount()}).
+	 *
+	 * @param maxDocumentsInFlight the maximum number of documents being processed at any given time. Any value
+	 *                             less than `1` reverts to the default.
+	 */
+	public void setMaxDocumentsInFlight(int maxDocumentsInFlight) {
+		this.maxDocumentsInFlight = maxDocumentsInFlight < 1 ? -1 : maxDocumentsInFlight;
+	}
+
+	/**
+	 * Returns a flag indicating whether results should be delivered in the same order of the inputs, even though
+	 * the documents are parsed in parallel. When enabled, the results of a document that finished parsing are held
+	 * until all documents before it are delivered.
+	 *
+	 * <em>Defaults to {@code false}</em>
+	 *
+	 * @return whether the order of the inputs is preserved in the results.
+	 */
+	public boolean isPreserveInputOrder() {
+		return preserveInputOrder;
+	}
+
+	/**
+	 * Defines whether results should be delivered in the same order of the inputs, even though the documents are
+	 * parsed in parallel. When enabled, the results of a document that finished parsing are held until all documents
+	 * before it are delivered.
+	 *
+	 * <em>Defaults to {@code false}</em>
+	 *
+	 * @param preserveInputOrder flag indicating whether the order of the inputs should be preserved in the results.
+	 */
+	public void setPreserveInputOrder(boolean preserveInputOrder) {
+		this.preserveInputOrder = preserveInputOrder;
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import java.util.*;
+
+/**
+ * Identifies where a document parsed by the {@link HtmlParser} comes from, relative to the inputs given to the parser.
+ * A position is a path: the index of the input, the index of the page loaded from it by the {@link HtmlPaginator},
+ * and then, for documents loaded by a {@link HtmlLinkFollower}, the index of the link followed and the index of the
+ * page loaded from that link, for every level of links followed.
+ *
+ * Positions can be assigned as soon as a document is found, without knowing anything about the documents that come
+ * before it, so they remain stable when documents are parsed in parallel. Positions are compared in source order:
+ * a document comes before the documents linked from it, which come before the next page of that document, which
+ * comes before the next input.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParsingContext#documentPosition()
+ */
+public final class DocumentPosition implements Comparable<DocumentPosition> {
+
+	private final long[] path;
+
+	private DocumentPosition(long[] path) {
+		this.path = path;
+	}
+
+	/**
+	 * Returns the position of the first page of an input given to the parser.
+	 *
+	 * @param inputIndex the position of the input in the sequence of inputs parsed, starting from `0`.
+	 *
+	 * @return the position of the document read from the given input.
+	 */
+	public static DocumentPosition ofInput(long inputIndex) {
+		if (inputIndex < 0) {
+			throw new IllegalArgumentException("Input index must be positive. Got " + inputIndex);
+		}
+		return new DocumentPosition(new long[]{inputIndex, 0L});
+	}
+
+	/**
+	 * Returns the position of the page that follows this document, as loaded by the {@link HtmlPaginator}.
+	 *
+	 * @return the position of the next page.
+	 */
+	public DocumentPosition nextPage() {
+		long[] out = path.clone();
+		out[out.length - 1]++;
+		return new DocumentPosition(out);
+	}
+
+	/**
+	 * Returns the position of the first page of a document loaded by following a link of this document.
+	 *
+	 * @param linkIndex the position of the link among the links followed from this document, starting from `0`.
+	 *
+	 * @return the position of the linked document.
+	 */
+	public DocumentPosition linkedDocument(long linkIndex) {
+		if (linkIndex < 0) {
+			throw new IllegalArgumentException("Link index must be positive. Got " + linkIndex);
+		}
+		long[] out = Arrays.copyOf(path, path.length + 2);
+		out[path.length] = linkIndex;
+		return new DocumentPosition(out);
+	}
+
+	/**
+	 * Returns the index of the input this document was obtained from, directly or through links.
+	 *
+	 * @return the position of the input in the sequence of inputs parsed, starting from `0`.
+	 */
+	public long getInputIndex() {
+		return path[0];
+	}
+
+	/**
+	 * Returns the index of this document among the pages loaded by the {@link HtmlPaginator} from the same input or
+	 * link. The first page has index `0`.
+	 *
+	 * @return the page index of this document.
+	 */
+	public long getPageIndex() {
+		return path[path.length - 1];
+	}
+
+	/**
+	 * Returns the number of links followed to reach this document from an input.
+	 *
+	 * @return `0` for documents read from an input or loaded by the {@link HtmlPaginator}, otherwise the depth of the
+	 * link that produced this document.
+	 */
+	public int getLinkDepth() {
+		return (path.length - 2) / 2;
+	}
+
+	/**
+	 * Returns the position of the document whose link was followed to load this document.
+	 *
+	 * @return the position of the linking document, or `null` if this document was not loaded from a link.
+	 */
+	public DocumentPosition getLinkingDocument() {
+		if (path.length == 2) {
+			return null;
+		}
+		return new DocumentPosition(Arrays.copyOf(path, path.length - 2));
+	}
+
+	@Override
+	public int compareTo(DocumentPosition o) {
+		int length = Math.min(path.length, o.path.length);
+		for (int i = 0; i < length; i++) {
+			int c = Long.compare(path[i], o.path[i]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return Integer.compare(path.length, o.path.length);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return this == o || (o instanceof DocumentPosition && Arrays.equals(path, ((DocumentPosition) o).path));
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(path);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+		out.append("input ").append(path[0]).append(", page ").append(path[1]);
+		for (int i = 2; i < path.length; i += 2) {
+			out.append(" > link ").append(path[i]).append(", page ").append(path[i + 1]);
+		}
+		return out.toString();
+	}
+}
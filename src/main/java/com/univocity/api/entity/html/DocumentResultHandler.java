@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * A callback interface to receive the results of each document processed by a batch parsing operation, started with
+ * {@link HtmlParser#parseAll(Iterable, BatchOptions, DocumentResultHandler)} or
+ * {@link HtmlParser#parseAll(java.util.stream.Stream, BatchOptions, DocumentResultHandler)}.
+ *
+ * <b>Important:</b> documents are parsed concurrently. Unless {@link BatchOptions#isPreserveInputOrder()} is enabled,
+ * this callback may be invoked from multiple threads at the same time, so make sure your implementation is
+ * thread-safe.
+ *
+ * @param <I> the type of input the documents are read from, e.g. {@link com.univocity.api.io.ReaderProvider} or
+ *            {@link com.univocity.api.io.FileProvider}.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see BatchOptions
+ * @see HtmlParser
+ */
+public interface DocumentResultHandler<I> {
+
+	/**
+	 * Informs the user that a document has been parsed.
+	 *
+	 * @param documentIndex  the position of the document in the input sequence, starting from 0.
+	 * @param documentSource the input the results were extracted from, as given in the input sequence.
+	 * @param results        the records of each entity extracted from the document.
+	 */
+	void documentParsed(long documentIndex, I documentSource, Results<HtmlParserResult> results);
+}
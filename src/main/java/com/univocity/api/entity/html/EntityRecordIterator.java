@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import java.util.*;
+
+/**
+ * A {@link HtmlRecordIterator} that only returns the records of a given entity, skipping the records of other
+ * entities produced by another iterator.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParserInterface#iterate(com.univocity.api.io.ReaderProvider, String)
+ */
+class EntityRecordIterator implements HtmlRecordIterator {
+
+	private final HtmlRecordIterator iterator;
+	private final String entityName;
+	private HtmlRecord next;
+	private String nextEntityName;
+	private String currentEntityName;
+
+	EntityRecordIterator(HtmlRecordIterator iterator, String entityName) {
+		this.iterator = iterator;
+		this.entityName = entityName;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (next == null && iterator.hasNext()) {
+			HtmlRecord record = iterator.next();
+			String name = iterator.getEntityName();
+			if (entityName.equalsIgnoreCase(name)) {
+				next = record;
+				nextEntityName = name;
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public HtmlRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		HtmlRecord out = next;
+		currentEntityName = nextEntityName;
+		next = null;
+		return out;
+	}
+
+	@Override
+	public String getEntityName() {
+		return currentEntityName;
+	}
+
+	@Override
+	public void close() {
+		next = null;
+		iterator.close();
+	}
+}
@@ -123,6 +123,9 @@ public interface HtmlElement {
 	 * Get the data content of this element and all its children. Data consists of textual content inside comments, or
 	 * tags such as `style` or `script`, for example, where the contents should not render as text.
 	 *
+	 * **Note:** the data content will be empty if the element was produced by a parser configured to skip it. See
+	 * {@link HtmlParserSettings#setSparseDataParsingEnabled(boolean)}.
+	 *
 	 * @return the data content of this element, or empty if no data.
 	 */
 	String data();
@@ -454,4 +457,29 @@ public interface HtmlElement {
 	 * @return {@code true} if all child nodes of this element are text, otherwise {@code false}
 	 */
 	boolean hasTextOnly();
+
+	/**
+	 * Returns the {@link HtmlTableLayout} of the `<table>` that contains this element, or of this element itself if it
+	 * is a `<table>`. The layout maps every cell of the table to the row and column it occupies, considering any
+	 * `rowspan` and `colspan` attributes.
+	 *
+	 * The elements produced by the parser build the layout only once, the first time it is requested for any element
+	 * of a given table, and keep it in the `<table>` element for subsequent calls. The parser relies on it to resolve
+	 * table-related matching rules such as {@link com.univocity.api.entity.html.builders.ContentReader#getTextAbove()}
+	 * and {@link com.univocity.api.entity.html.builders.BasicElementFilter#underHeader(String)} without scanning the
+	 * table again for each cell.
+	 *
+	 * The default implementation finds the nearest enclosing `<table>` and reuses its layout if it is one of the
+	 * most recently used tables (see {@link HtmlTableLayout#of(HtmlElement)}), so the layout is only built again
+	 * once the table is evicted from that cache.
+	 *
+	 * @return the layout of the nearest enclosing table, or `null` if this element is not inside a `<table>`.
+	 */
+	default HtmlTableLayout tableLayout() {
+		HtmlElement element = this;
+		while (element != null && !"table".equalsIgnoreCase(element.tagName())) {
+			element = element.parent();
+		}
+		return element == null ? null : HtmlTableLayout.of(element);
+	}
 }
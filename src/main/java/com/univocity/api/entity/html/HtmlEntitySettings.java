@@ -9,6 +9,7 @@ package com.univocity.api.entity.html;
 import com.univocity.api.*;
 import com.univocity.api.common.*;
 import com.univocity.api.entity.html.builders.*;
+import com.univocity.api.entity.html.processor.*;
 import com.univocity.api.net.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.remote.*;
@@ -30,7 +31,11 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 
 	Map<String, Object> fields = new LinkedHashMap<String, Object>();
 	final List<RecordTrigger> triggers = new ArrayList<RecordTrigger>(1);
+	Set<String> structuralFields = new LinkedHashSet<String>();
+	Set<String> fieldsUsedByLinkedEntities = new LinkedHashSet<String>();
 	private HtmlParserListener listener = null;
+	private RowProcessorFactory processorFactory = null;
+	private Long recordLimit = null;
 
 	/**
 	 * Creates a new HTML entity configuration and associates it with the supplied name.
@@ -70,6 +75,9 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 	private PathStart newField(String fieldName, boolean persistent, boolean inhibitNewRows) {
 		FieldPath pathBuilder = Builder.build(FieldPath.class, fieldName, this, persistent, inhibitNewRows);
 		addPathToField(fieldName, pathBuilder);
+		if (persistent || inhibitNewRows) {
+			structuralFields.add(fieldName);
+		}
 		return pathBuilder;
 	}
 
@@ -194,8 +202,75 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 	@Override
 	public final void removeField(String fieldName) {
 		fields.remove(fieldName);
+		structuralFields.remove(fieldName);
+		fieldsUsedByLinkedEntities.remove(fieldName);
 	}
 
+	/**
+	 * Returns the names of the fields whose paths must be evaluated by the {@link HtmlParser} to produce the records
+	 * of this entity, assuming all fields are selected. Same as {@link #getRequiredFieldNames(Set)} with `null`.
+	 *
+	 * @return the names of the fields to evaluate when parsing, in the order they were defined.
+	 */
+	public final Set<String> getRequiredFieldNames() {
+		return getRequiredFieldNames(null);
+	}
+
+	/**
+	 * Returns the names of the fields whose paths must be evaluated by the {@link HtmlParser} to produce the records
+	 * of this entity. Paths of any other field are skipped, and their values will be `null` in the rows produced.
+	 *
+	 * Only the given selected fields are considered, as the values of any other field are discarded. The parser
+	 * provides the fields selected for this entity (with `selectFields`, `excludeFields`, `selectIndexes` or
+	 * `excludeIndexes`) when it resolves the field selection. Among these, if the
+	 * {@link com.univocity.api.entity.html.processor.RowProcessor} associated with this entity (or its
+	 * {@link RowProcessorFactory}, if defined) implements {@link FieldConsumer}, the fields it consumes are required.
+	 * Otherwise all selected fields are required. The following fields are always required as they affect how records
+	 * are produced and linked, regardless of being selected or consumed:
+	 *
+	 * * persistent fields, added with {@link #addPersistentField(String)}
+	 * * silent fields, added with {@link #addSilentField(String)}
+	 * * fields associated with a {@link HtmlLinkFollower}
+	 * * fields used by linked entities through {@link #addFieldFrom(String, String)} or {@link #addFieldFromParent(String)}
+	 *
+	 * When this entity follows links, all fields are required, as values of any field of a record can replace the
+	 * parameters of the URL of a linked page (see {@link #followLink(String, UrlReaderProvider)}).
+	 * Record triggers, added with {@link #addRecordTrigger()}, are always evaluated.
+	 *
+	 * @param selectedFields the names of the fields selected for this entity, or `null` if all fields are selected.
+	 *
+	 * @return the names of the fields to evaluate when parsing, in the order they were defined.
+	 */
+	public final Set<String> getRequiredFieldNames(Set<String> selectedFields) {
+		Set<String> fieldNames = getFieldNames();
+		if (!followers.isEmpty()) {
+			return fieldNames;
+		}
+		Set<String> consumed = null;
+		Object processor = processorFactory != null ? processorFactory : getProcessor();
+		if (processor instanceof FieldConsumer) {
+			Set<String> available = fieldNames;
+			if (selectedFields != null) {
+				available = new LinkedHashSet<String>(fieldNames);
+				available.retainAll(selectedFields);
+				available = Collections.unmodifiableSet(available);
+			}
+			consumed = ((FieldConsumer) processor).getConsumedFields(available);
+		}
+		if (selectedFields == null && consumed == null) {
+			return fieldNames;
+		}
+
+		Set<String> out = new LinkedHashSet<String>();
+		for (String fieldName : fieldNames) {
+			if (((selectedFields == null || selectedFields.contains(fieldName)) && (consumed == null || consumed.contains(fieldName)))
+					|| structuralFields.contains(fieldName)
+					|| fieldsUsedByLinkedEntities.contains(fieldName)) {
+				out.add(fieldName);
+			}
+		}
+		return Collections.unmodifiableSet(out);
+	}
 
 	@Override
 	public final void addField(String fieldName, String constantValue) {
@@ -221,6 +296,7 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 			if (parentEntityName.equalsIgnoreCase(parent.getEntityName())) {
 				Set<String> parentFields = parent.getFieldNames();
 				if (parentFields.contains(field)) {
+					parent.fieldsUsedByLinkedEntities.add(field);
 					this.fields.put(field, parent);
 					return;
 				} else {
@@ -243,7 +319,8 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 	 *
 	 * <b>Important:</b>The listener methods are used in a concurrent environment. If you are using the same
 	 * instance on multiple entities make sure your listener implementation is thread-safe, or limit the number
-	 * of threads to be used when parsing to <b>1</b> with {@link HtmlParserSettings#setParserThreadCount(int)}
+	 * of threads to be used when parsing to <b>1</b> with {@link HtmlParserSettings#setParserThreadCount(int)}, without
+	 * providing an executor with {@link HtmlParserSettings#setParserExecutor(java.util.concurrent.ExecutorService)}
 	 *
 	 * @param listener the {@link HtmlParserListener} to be used when the parser executes to collect values for the fields
 	 *                 of this entity.
@@ -259,7 +336,8 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 	 *
 	 * <b>Important:</b>The listener methods are used in a concurrent environment. If you are using the same
 	 * instance on multiple entities make sure your listener implementation is thread-safe, or limit the number
-	 * of threads to be used when parsing to <b>1</b> with {@link HtmlParserSettings#setParserThreadCount(int)}
+	 * of threads to be used when parsing to <b>1</b> with {@link HtmlParserSettings#setParserThreadCount(int)}, without
+	 * providing an executor with {@link HtmlParserSettings#setParserExecutor(java.util.concurrent.ExecutorService)}
 	 *
 	 * @return the {@link HtmlParserListener} to be used when the parser executes to collect values for the fields
 	 * of this entity.
@@ -268,6 +346,78 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 		return listener;
 	}
 
+	/**
+	 * Associates a {@link RowProcessorFactory} with this HTML entity. When defined, every parsing process gets its own
+	 * {@link RowProcessor} from the factory instead of using the processor given to {@link #setProcessor(Processor)}:
+	 * the factory is invoked at the start of every call to a `parse` method of the {@link HtmlParser}, and for every
+	 * document parsed by {@link HtmlParser#parseAll(Iterable, BatchOptions)}.
+	 *
+	 * Use a factory to share a single {@link HtmlParser} among multiple threads when the processor of this entity keeps
+	 * state while parsing, as most processors do. A processor created by the factory is only used by the parsing
+	 * process it was created for, so it doesn't need to be thread-safe.
+	 *
+	 * Defaults to `null`, i.e. the processor given to {@link #setProcessor(Processor)} is shared by all parsing
+	 * processes.
+	 *
+	 * @param processorFactory the factory of processors for each parsing process, or `null` to use a single processor.
+	 */
+	public final void setProcessorFactory(RowProcessorFactory processorFactory) {
+		this.processorFactory = processorFactory;
+	}
+
+	/**
+	 * Returns the {@link RowProcessorFactory} that creates a new {@link RowProcessor} for each parsing process of
+	 * this entity. See {@link #setProcessorFactory(RowProcessorFactory)}.
+	 *
+	 * @return the factory of processors for each parsing process, or `null` if a single processor is used.
+	 */
+	public final RowProcessorFactory getProcessorFactory() {
+		return processorFactory;
+	}
+
+	/**
+	 * Returns the maximum number of records to be produced for this entity. If no limit has been defined for this
+	 * entity, the global limit defined with {@link HtmlParserSettings#setRecordLimit(long)} will be used. The global
+	 * limit applies to each entity on its own, i.e. it's not shared with the records produced by other entities.
+	 *
+	 * Once the limit is reached, the parser stops collecting values for this entity. When all entities being parsed
+	 * reach their limits, the parser stops traversing the HTML tree, and won't load any further pages with the
+	 * {@link HtmlPaginator} nor follow any links with a {@link HtmlLinkFollower}.
+	 *
+	 * @return the maximum number of records for this entity, or `-1` if there is no limit
+	 */
+	public final long getRecordLimit() {
+		if (recordLimit == null) {
+			return parserSettings == null ? -1L : parserSettings.getRecordLimit();
+		}
+		return recordLimit;
+	}
+
+	/**
+	 * Defines the maximum number of records to be produced for this entity, overriding the global limit defined
+	 * with {@link HtmlParserSettings#setRecordLimit(long)}.
+	 *
+	 * Once the limit is reached, the parser stops collecting values for this entity. When all entities being parsed
+	 * reach their limits, the parser stops traversing the HTML tree, and won't load any further pages with the
+	 * {@link HtmlPaginator} nor follow any links with a {@link HtmlLinkFollower}.
+	 *
+	 * Use {@link #clearRecordLimit()} to make this entity use the global limit again.
+	 *
+	 * @param recordLimit the maximum number of records for this entity. Any value less than `0` removes the limit,
+	 *                    even if a global limit is defined.
+	 */
+	public final void setRecordLimit(long recordLimit) {
+		this.recordLimit = recordLimit < 0 ? -1L : recordLimit;
+	}
+
+	/**
+	 * Removes the limit defined for this entity with {@link #setRecordLimit(long)}, so that the global limit
+	 * defined with {@link HtmlParserSettings#setRecordLimit(long)} applies to this entity again.
+	 */
+	public final void clearRecordLimit() {
+		this.recordLimit = null;
+	}
+
 	HtmlLinkFollower addHtmlLinkFollower(String fieldName) {
 		HtmlLinkFollower htmlLinkFollower = new HtmlLinkFollower(this);
 		//FIXME: will break if multiple paths are assigned to same field name and a different link follower is to be used for each path.
@@ -308,6 +458,8 @@ public class HtmlEntitySettings extends RemoteEntitySettings<HtmlParsingContext,
 	protected HtmlEntitySettings clone() {
 		HtmlEntitySettings out = (HtmlEntitySettings) super.clone();
 		out.fields = new LinkedHashMap<String, Object>();
+		out.structuralFields = new LinkedHashSet<String>();
+		out.fieldsUsedByLinkedEntities = new LinkedHashSet<String>();
 		return out;
 	}
 }
@@ -7,6 +7,7 @@
 package com.univocity.api.entity.html;
 
 import com.univocity.api.*;
+import com.univocity.api.common.*;
 import com.univocity.api.io.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.common.processor.core.*;
@@ -16,10 +17,24 @@ import com.univocity.parsers.remote.*;
 import java.io.*;
 import java.nio.charset.*;
 import java.util.*;
+import java.util.stream.*;
 
 /**
  * A very fast HTML parser.
  *
+ * A `HtmlParser` can be used by multiple threads invoking its `parse` methods at the same time. The configuration
+ * obtained from the {@link HtmlEntityList} is compiled when the parser is created and shared by all calls, while
+ * each call uses its own {@link HtmlParsingContext} and produces its own {@link Results}.
+ *
+ * Processors keep state while parsing (e.g. {@link com.univocity.api.entity.html.processor.BeanListProcessor},
+ * {@link com.univocity.api.entity.html.processor.ObjectColumnProcessor} and
+ * {@link com.univocity.api.entity.html.processor.AggregationProcessor}), so a processor given to
+ * {@link HtmlEntitySettings#setProcessor(Processor)} must not be used by concurrent calls. To share a parser among
+ * threads, associate a {@link com.univocity.api.entity.html.processor.RowProcessorFactory} with each entity that has
+ * a processor (see {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)}):
+ * every call then gets its own processor instances. Any {@link HtmlParserListener} associated with an entity is
+ * shared by all calls and must be thread-safe.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  * @see HtmlParserSettings
  * @see ReaderProvider
@@ -29,6 +44,7 @@ import java.util.*;
 public final class HtmlParser implements HtmlParserInterface {
 
 	private final HtmlParserInterface parser;
+	private final HtmlEntityList entityList;
 
 	/**
 	 * Creates a new HtmlParser with the entity configuration provided by a {@link HtmlEntityList}. The {@code HtmlParser}
@@ -37,6 +53,7 @@ public final class HtmlParser implements HtmlParserInterface {
 	 * @param entityList The list of entities to be parsed by the {@code HtmlParser}, and their configuration
 	 */
 	public HtmlParser(HtmlEntityList entityList) {
+		this.entityList = entityList;
 		if (entityList == null) {
 			parser = null;
 		} else {
@@ -202,12 +219,411 @@ public final class HtmlParser implements HtmlParserInterface {
 	}
 
 
+	/**
+	 * Parses multiple inputs in parallel, reusing the configuration of this parser for all of them. The inputs are
+	 * consumed lazily, and at most twice as many documents as the number of parser threads are processed at the same
+	 * time. The records of all entities extracted from all documents are merged together.
+	 *
+	 * Documents are parsed in parallel, so entities must not share a single processor: use
+	 * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)} to
+	 * give each document its own processor. Parsing fails with an {@link IllegalStateException} if any entity has a
+	 * processor set with {@link HtmlEntitySettings#setProcessor(Processor)} but no factory.
+	 *
+	 * @param inputs the inputs with content to be parsed
+	 *
+	 * @return the results of all documents merged together.
+	 */
+	public final Results<HtmlParserResult> parseAll(Iterable<? extends ReaderProvider> inputs) {
+		return parseAll(inputs, new BatchOptions());
+	}
+
+	/**
+	 * Parses multiple inputs in parallel, reusing the configuration of this parser for all of them. The inputs are
+	 * consumed lazily, according to the given {@link BatchOptions}. The records of all entities extracted from all
+	 * documents are merged together.
+	 *
+	 * Documents are parsed in parallel, so entities must not share a single processor: use
+	 * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)} to
+	 * give each document its own processor. Parsing fails with an {@link IllegalStateException} if any entity has a
+	 * processor set with {@link HtmlEntitySettings#setProcessor(Processor)} but no factory.
+	 *
+	 * @param inputs  the inputs with content to be parsed
+	 * @param options the options that control how documents are processed.
+	 *
+	 * @return the results of all documents merged together.
+	 */
+	public final Results<HtmlParserResult> parseAll(Iterable<? extends ReaderProvider> inputs, BatchOptions options) {
+		Args.notNull(inputs, "Inputs to parse");
+		return parseAll(inputs.iterator(), options);
+	}
+
+	/**
+	 * Parses multiple inputs in parallel, reusing the configuration of this parser for all of them. The inputs are
+	 * consumed lazily, according to the given {@link BatchOptions}, and the results of each document are delivered
+	 * to the given {@link DocumentResultHandler} as soon as it is parsed, without being retained by the parser.
+	 *
+	 * Documents are parsed in parallel, so entities must not share a single processor: use
+	 * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)} to
+	 * give each document its own processor. Parsing fails with an {@link IllegalStateException} if any entity has a
+	 * processor set with {@link HtmlEntitySettings#setProcessor(Processor)} but no factory.
+	 *
+	 * @param inputs  the inputs with content to be parsed
+	 * @param options the options that control how documents are processed.
+	 * @param handler the callback that receives the results of each document.
+	 * @param <T>     the type of input to parse.
+	 */
+	public final <T extends ReaderProvider> void parseAll(Iterable<? extends T> inputs, BatchOptions options, DocumentResultHandler<? super T> handler) {
+		Args.notNull(inputs, "Inputs to parse");
+		parseAll(inputs.iterator(), options, handler);
+	}
+
+	/**
+	 * Parses multiple files in parallel, reusing the configuration of this parser for all of them. The files are
+	 * consumed lazily from the given stream, and at most twice as many documents as the number of parser threads are
+	 * processed at the same time. The records of all entities extracted from all documents are merged together.
+	 *
+	 * Documents are parsed in parallel, so entities must not share a single processor: use
+	 * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)} to
+	 * give each document its own processor. Parsing fails with an {@link IllegalStateException} if any entity has a
+	 * processor set with {@link HtmlEntitySettings#setProcessor(Processor)} but no factory.
+	 *
+	 * @param inputs the files with content to be parsed
+	 *
+	 * @return the results of all documents merged together.
+	 */
+	public final Results<HtmlParserResult> parseAll(Stream<? extends FileProvider> inputs) {
+		return parseAll(inputs, new BatchOptions());
+	}
+
+	/**
+	 * Parses multiple files in parallel, reusing the configuration of this parser for all of them. The files are
+	 * consumed lazily from the given stream, according to the given {@link BatchOptions}. The records of all entities
+	 * extracted from all documents are merged together.
+	 *
+	 * Documents are parsed in parallel, so entities must not share a single processor: use
+	 * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)} to
+	 * give each document its own processor. Parsing fails with an {@link IllegalStateException} if any entity has a
+	 * processor set with {@link HtmlEntitySettings#setProcessor(Processor)} but no factory.
+	 *
+	 * @param inputs  the files with content to be parsed
+	 * @param options the options that control how documents are processed.
+	 *
+	 * @return the results of all documents merged together.
+	 */
+	public final Results<HtmlParserResult> parseAll(Stream<? extends FileProvider> inputs, BatchOptions options) {
+		Args.notNull(inputs, "Files to parse");
+		try (Stream<? extends FileProvider> files = inputs) {
+			return parseAllFiles(files.iterator(), options);
+		}
+	}
+
+	/**
+	 * Parses multiple files in parallel, reusing the configuration of this parser for all of them. The files are
+	 * consumed lazily from the given stream, according to the given {@link BatchOptions}, and the results of each
+	 * document are delivered to the given {@link DocumentResultHandler} as soon as it is parsed, without being retained
+	 * by the parser.
+	 *
+	 * Documents are parsed in parallel, so entities must not share a single processor: use
+	 * {@link HtmlEntitySettings#setProcessorFactory(com.univocity.api.entity.html.processor.RowProcessorFactory)} to
+	 * give each document its own processor. Parsing fails with an {@link IllegalStateException} if any entity has a
+	 * processor set with {@link HtmlEntitySettings#setProcessor(Processor)} but no factory.
+	 *
+	 * @param inputs  the files with content to be parsed
+	 * @param options the options that control how documents are processed.
+	 * @param handler the callback that receives the results of each document.
+	 * @param <T>     the type of file to parse.
+	 */
+	public final <T extends FileProvider> void parseAll(Stream<? extends T> inputs, BatchOptions options, DocumentResultHandler<? super T> handler) {
+		Args.notNull(inputs, "Files to parse");
+		try (Stream<? extends T> files = inputs) {
+			parseAllFiles(files.iterator(), options, handler);
+		}
+	}
+
+	/**
+	 * Parses the input made available by a {@link ReaderProvider} on demand, producing the records of all entities
+	 * as they are requested from the {@link HtmlRecordIterator} returned. Parsing is paused while records are not
+	 * consumed, so that memory usage stays constant regardless of the size of the input or the number of pages
+	 * loaded by a {@link HtmlPaginator}.
+	 *
+	 * The {@link com.univocity.api.entity.html.processor.RowProcessor} of each entity is not used.
+	 *
+	 * @param readerProvider an input provider with content to be parsed
+	 *
+	 * @return an iterator over the records produced by the parser. Close it if the records are not fully consumed.
+	 */
+	@Override
+	public final HtmlRecordIterator iterate(ReaderProvider readerProvider) {
+		return parser.iterate(readerProvider);
+	}
+
+	/**
+	 * Parses the input made available by a {@link FileProvider} on demand, producing the records of all entities
+	 * as they are requested from the {@link HtmlRecordIterator} returned. Parsing is paused while records are not
+	 * consumed, so that memory usage stays constant regardless of the size of the input.
+	 *
+	 * The {@link com.univocity.api.entity.html.processor.RowProcessor} of each entity is not used.
+	 *
+	 * @param fileProvider the input file with content to be parsed
+	 *
+	 * @return an iterator over the records produced by the parser. Close it if the records are not fully consumed.
+	 */
+	@Override
+	public final HtmlRecordIterator iterate(FileProvider fileProvider) {
+		return parser.iterate(fileProvider);
+	}
+
+	/**
+	 * Parses the input made available by a {@link ReaderProvider} on demand, producing only the records of the given
+	 * entity as they are requested from the {@link HtmlRecordIterator} returned. Other entities are not extracted,
+	 * so pages are only loaded by the {@link HtmlPaginator}, and links only followed by a {@link HtmlLinkFollower},
+	 * as needed to produce records of the given entity.
+	 *
+	 * The {@link com.univocity.api.entity.html.processor.RowProcessor} of each entity is not used.
+	 *
+	 * @param readerProvider an input provider with content to be parsed
+	 * @param entityName     the name of the entity whose records will be produced.
+	 *
+	 * @return an iterator over the records of the given entity. Close it if the records are not fully consumed.
+	 */
+	@Override
+	public final HtmlRecordIterator iterate(ReaderProvider readerProvider, String entityName) {
+		Args.notBlank(entityName, "Entity name");
+		return parser.iterate(readerProvider, entityName);
+	}
+
+	/**
+	 * Parses the input made available by a {@link FileProvider} on demand, producing only the records of the given
+	 * entity as they are requested from the {@link HtmlRecordIterator} returned. Other entities are not extracted,
+	 * so pages are only loaded by the {@link HtmlPaginator}, and links only followed by a {@link HtmlLinkFollower},
+	 * as needed to produce records of the given entity.
+	 *
+	 * The {@link com.univocity.api.entity.html.processor.RowProcessor} of each entity is not used.
+	 *
+	 * @param fileProvider the input file with content to be parsed
+	 * @param entityName   the name of the entity whose records will be produced.
+	 *
+	 * @return an iterator over the records of the given entity. Close it if the records are not fully consumed.
+	 */
+	@Override
+	public final HtmlRecordIterator iterate(FileProvider fileProvider, String entityName) {
+		Args.notBlank(entityName, "Entity name");
+		return parser.iterate(fileProvider, entityName);
+	}
+
+	/**
+	 * Creates a file to store records produced by the parser, which can be reopened with
+	 * {@link #openResults(FileProvider)}, including the data of linked fields and linked entities, so that data
+	 * extracted once can be queried many times, from any process, without running the parser again.
+	 *
+	 * Records are written as they are given to the {@link HtmlResultWriter} returned, so they can be stored while
+	 * the input is parsed (e.g. with {@link #iterate(ReaderProvider)}) without holding all results in memory.
+	 *
+	 * @param output the file where the results will be written to. Will be overwritten if it already exists.
+	 *
+	 * @return a writer of records into the given file, which must be closed once all records are written.
+	 */
+	public static final HtmlResultWriter openResultWriter(FileProvider output) {
+		Args.notNull(output, "Output file");
+		return Builder.build(HtmlResultStore.class).newWriter(output);
+	}
+
+	/**
+	 * Creates a file to store records produced by the parser, which can be reopened with {@link #openResults(File)},
+	 * including the data of linked fields and linked entities, so that data extracted once can be queried many
+	 * times, from any process, without running the parser again.
+	 *
+	 * Records are written as they are given to the {@link HtmlResultWriter} returned, so they can be stored while
+	 * the input is parsed (e.g. with {@link #iterate(ReaderProvider)}) without holding all results in memory.
+	 *
+	 * @param output the file where the results will be written to. Will be overwritten if it already exists.
+	 *
+	 * @return a writer of records into the given file, which must be closed once all records are written.
+	 */
+	public static final HtmlResultWriter openResultWriter(File output) {
+		return openResultWriter(new FileProvider(output));
+	}
+
+	/**
+	 * Writes the given results to a file that can be reopened with {@link #openResults(FileProvider)}, including the
+	 * data of linked fields and linked entities. To store results without holding them all in memory, use
+	 * {@link #openResultWriter(FileProvider)} instead.
+	 *
+	 * @param results the results to store
+	 * @param output  the file where the results will be written to. Will be overwritten if it already exists.
+	 */
+	public static final void writeResults(Results<HtmlParserResult> results, FileProvider output) {
+		Args.notNull(results, "Results to write");
+		try (HtmlResultWriter writer = openResultWriter(output)) {
+			writer.write(results);
+		}
+	}
+
+	/**
+	 * Writes the given results to a file that can be reopened with {@link #openResults(File)}, including the
+	 * data of linked fields and linked entities. To store results without holding them all in memory, use
+	 * {@link #openResultWriter(File)} instead.
+	 *
+	 * @param results the results to store
+	 * @param output  the file where the results will be written to. Will be overwritten if it already exists.
+	 */
+	public static final void writeResults(Results<HtmlParserResult> results, File output) {
+		writeResults(results, new FileProvider(output));
+	}
+
+	/**
+	 * Reopens results stored in a file created by {@link #openResultWriter(FileProvider)} or
+	 * {@link #writeResults(Results, FileProvider)}. The file is memory-mapped: records, linked field data and linked
+	 * entity data are only decoded when accessed, so results much larger than the available heap can be queried.
+	 * No parser configuration is required: the results are read back exactly as they were written.
+	 *
+	 * The file remains mapped until the {@link StoredHtmlResults} returned are closed, and must not be modified
+	 * in the meantime. Records read from the results become invalid once they are closed.
+	 *
+	 * @param input the file with the results to be read.
+	 *
+	 * @return the results stored in the given file.
+	 */
+	public static final StoredHtmlResults openResults(FileProvider input) {
+		Args.notNull(input, "Input file");
+		return Builder.build(HtmlResultStore.class).open(input);
+	}
+
+	/**
+	 * Reopens results stored in a file created by {@link #openResultWriter(File)} or
+	 * {@link #writeResults(Results, File)}. The file is memory-mapped: records, linked field data and linked
+	 * entity data are only decoded when accessed, so results much larger than the available heap can be queried.
+	 * No parser configuration is required: the results are read back exactly as they were written.
+	 *
+	 * The file remains mapped until the {@link StoredHtmlResults} returned are closed, and must not be modified
+	 * in the meantime. Records read from the results become invalid once they are closed.
+	 *
+	 * @param input the file with the results to be read.
+	 *
+	 * @return the results stored in the given file.
+	 */
+	public static final StoredHtmlResults openResults(File input) {
+		return openResults(new FileProvider(input));
+	}
+
+	/**
+	 * Parses the input made available by a {@link ReaderProvider} on demand, producing a sequential {@link Stream}
+	 * of the records of all entities. Parsing only advances as the stream is consumed. Closing the stream stops
+	 * the parsing process.
+	 *
+	 * @param readerProvider an input provider with content to be parsed
+	 *
+	 * @return a stream of the records produced by the parser.
+	 */
+	public final Stream<HtmlRecord> stream(ReaderProvider readerProvider) {
+		return toStream(iterate(readerProvider));
+	}
+
+	/**
+	 * Parses the input made available by a {@link FileProvider} on demand, producing a sequential {@link Stream}
+	 * of the records of all entities. Parsing only advances as the stream is consumed. Closing the stream stops
+	 * the parsing process.
+	 *
+	 * @param fileProvider the input file with content to be parsed
+	 *
+	 * @return a stream of the records produced by the parser.
+	 */
+	public final Stream<HtmlRecord> stream(FileProvider fileProvider) {
+		return toStream(iterate(fileProvider));
+	}
+
+	/**
+	 * Creates a {@link HtmlRecordPublisher} of the records of a given entity, extracted from the input made available
+	 * by a {@link ReaderProvider}. Records are only produced as they are requested by subscribers, so pages are only
+	 * loaded by the {@link HtmlPaginator}, and links only followed by a {@link HtmlLinkFollower}, when there's demand.
+	 *
+	 * @param readerProvider an input provider with content to be parsed
+	 * @param entityName     the name of the entity whose records will be published, or `null` to publish the records
+	 *                       of all entities.
+	 *
+	 * @return a publisher of the records produced by the parser.
+	 */
+	public final HtmlRecordPublisher publisher(ReaderProvider readerProvider, String entityName) {
+		Args.notNull(readerProvider, "Input to parse");
+		return new HtmlRecordPublisher(this, entityList.getParserSettings(), readerProvider, entityName);
+	}
+
+	/**
+	 * Creates a {@link HtmlRecordPublisher} of the records of a given entity, extracted from the input made available
+	 * by a {@link FileProvider}. Records are only produced as they are requested by subscribers.
+	 *
+	 * @param fileProvider the input file with content to be parsed
+	 * @param entityName   the name of the entity whose records will be published, or `null` to publish the records
+	 *                     of all entities.
+	 *
+	 * @return a publisher of the records produced by the parser.
+	 */
+	public final HtmlRecordPublisher publisher(FileProvider fileProvider, String entityName) {
+		Args.notNull(fileProvider, "File to parse");
+		return new HtmlRecordPublisher(this, entityList.getParserSettings(), fileProvider, entityName);
+	}
+
+	private static Stream<HtmlRecord> toStream(final HtmlRecordIterator iterator) {
+		Spliterator<HtmlRecord> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+			@Override
+			public void run() {
+				iterator.close();
+			}
+		});
+	}
+
+	@Override
+	public final Results<HtmlParserResult> parseAll(Iterator<? extends ReaderProvider> inputs, BatchOptions options) {
+		Args.notNull(inputs, "Inputs to parse");
+		validateBatchProcessors();
+		return parser.parseAll(inputs, options == null ? new BatchOptions() : options);
+	}
+
+	@Override
+	public final <T extends ReaderProvider> void parseAll(Iterator<? extends T> inputs, BatchOptions options, DocumentResultHandler<? super T> handler) {
+		Args.notNull(inputs, "Inputs to parse");
+		Args.notNull(handler, "Document result handler");
+		validateBatchProcessors();
+		parser.parseAll(inputs, options == null ? new BatchOptions() : options, handler);
+	}
+
+	@Override
+	public final Results<HtmlParserResult> parseAllFiles(Iterator<? extends FileProvider> inputs, BatchOptions options) {
+		Args.notNull(inputs, "Files to parse");
+		validateBatchProcessors();
+		return parser.parseAllFiles(inputs, options == null ? new BatchOptions() : options);
+	}
+
+	@Override
+	public final <T extends FileProvider> void parseAllFiles(Iterator<? extends T> inputs, BatchOptions options, DocumentResultHandler<? super T> handler) {
+		Args.notNull(inputs, "Files to parse");
+		Args.notNull(handler, "Document result handler");
+		validateBatchProcessors();
+		parser.parseAllFiles(inputs, options == null ? new BatchOptions() : options, handler);
+	}
+
+	private void validateBatchProcessors() {
+		if (entityList == null) {
+			return;
+		}
+		for (HtmlEntitySettings entity : entityList) {
+			if (entity.getProcessorFactory() == null && entity.getProcessor() instanceof com.univocity.api.entity.html.processor.RowProcessor) {
+				throw new IllegalStateException("Entity '" + entity.getEntityName() + "' has a processor that would be shared by documents parsed in parallel. " +
+						"Use HtmlEntitySettings.setProcessorFactory() to provide a processor for each document.");
+			}
+		}
+	}
+
 	/**
 	 * Returns the {@link HtmlPaginationContext} object with information collected for the configured {@link HtmlPaginator}, if
 	 * any. The information returned comes from the last input processed, and might have been modified by a
 	 * {@link NextInputHandler} if it has been associated with the {@link HtmlPaginator}
 	 * using {@link Paginator#setPaginationHandler(NextInputHandler)}.
 	 *
+	 * When the parser is used by multiple threads, the information returned comes from the last input processed by
+	 * the calling thread.
+	 *
 	 * @return the current {@link PaginationContext} with pagination information captured after parsing a given input.
 	 */
 	@Override
@@ -215,6 +631,35 @@ public final class HtmlParser implements HtmlParserInterface {
 		return parser.getPaginationContext();
 	}
 
+	/**
+	 * Returns the number of inputs, including pages loaded by a {@link HtmlPaginator} or a {@link HtmlLinkFollower},
+	 * that were not parsed because they don't contain the literals required by the entities being parsed.
+	 * Only applicable when {@link HtmlParserSettings#setInputPrefilterEnabled(boolean)} is enabled.
+	 *
+	 * @return the number of inputs skipped by this parser so far.
+	 */
+	@Override
+	public long getSkippedInputCount() {
+		return parser.getSkippedInputCount();
+	}
+
+	/**
+	 * Closes all results produced by a parsing process, deleting the files created to hold their records on disk
+	 * when the memory budget defined by {@link HtmlParserSettings#setResultMemoryLimit(long)} was exceeded
+	 * (see {@link HtmlParserResult#close()}).
+	 *
+	 * @param results the results to close.
+	 */
+	public static final void closeResults(Results<HtmlParserResult> results) {
+		if (results != null) {
+			for (HtmlParserResult result : results.values()) {
+				if (result != null) {
+					result.close();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Generates a DOM tree from the input made available by a {@link ReaderProvider}. Users can navigate the HTML tree
 	 * and use CSS selectors against the {@link HtmlElement}s returned to target any specific HTML node.
@@ -6,13 +6,21 @@
 
 package com.univocity.api.entity.html;
 
+import com.univocity.api.io.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.common.record.*;
 import com.univocity.parsers.remote.*;
 
+import java.util.*;
+
 /**
  * An extension of the {@link EntityParserInterface} to include all operations specific to the {@link HtmlParser}
  *
+ * Implementations must be safe for concurrent use, keeping any state of a parsing process in a context that is
+ * exclusive to each call. Entities with a {@link com.univocity.api.entity.html.processor.RowProcessorFactory}
+ * must get a new processor from it for each parsing process, including each document parsed by `parseAll` and
+ * `parseAllFiles`.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
  */
 public interface HtmlParserInterface extends RemoteEntityParserInterface<HtmlRecord, HtmlParsingContext, HtmlParserResult> {
@@ -28,14 +36,162 @@ public interface HtmlParserInterface extends RemoteEntityParserInterface<HtmlRec
 	 */
 	Results<HtmlParserResult> parse(HtmlElement htmlTree);
 
+	/**
+	 * Parses all records of all entities defined in the {@link EntityList} of this parser from multiple inputs, which
+	 * are processed in parallel. Inputs are only consumed from the given iterator when there is capacity to process
+	 * another document (see {@link BatchOptions#getMaxDocumentsInFlight()}).
+	 *
+	 * The default implementation doesn't support this operation: use
+	 * {@link #parseAll(Iterator, BatchOptions, DocumentResultHandler)} instead.
+	 *
+	 * @param inputs  the sequence of inputs to parse.
+	 * @param options the options that control how documents are processed.
+	 *
+	 * @return the results of all documents merged together.
+	 */
+	default Results<HtmlParserResult> parseAll(Iterator<? extends ReaderProvider> inputs, BatchOptions options) {
+		throw new UnsupportedOperationException("Merging the results of multiple inputs is not supported by " + getClass().getName());
+	}
+
+	/**
+	 * Parses all records of all entities defined in the {@link EntityList} of this parser from multiple inputs, which
+	 * are processed in parallel, delivering the results of each document to the given {@link DocumentResultHandler}
+	 * as soon as it is parsed. Results are not retained by the parser. Inputs are only consumed from the given iterator
+	 * when there is capacity to process another document (see {@link BatchOptions#getMaxDocumentsInFlight()}).
+	 *
+	 * The default implementation parses each input sequentially, in the calling thread, with
+	 * {@link #parse(ReaderProvider)}.
+	 *
+	 * @param inputs  the sequence of inputs to parse.
+	 * @param options the options that control how documents are processed.
+	 * @param handler the callback that receives the results of each document.
+	 * @param <T>     the type of input to parse.
+	 */
+	default <T extends ReaderProvider> void parseAll(Iterator<? extends T> inputs, BatchOptions options, DocumentResultHandler<? super T> handler) {
+		for (long i = 0; inputs.hasNext(); i++) {
+			T input = inputs.next();
+			handler.documentParsed(i, input, parse(input));
+		}
+	}
+
+	/**
+	 * Parses all records of all entities defined in the {@link EntityList} of this parser from multiple files, which
+	 * are processed in parallel. Files are only consumed from the given iterator when there is capacity to process
+	 * another document (see {@link BatchOptions#getMaxDocumentsInFlight()}).
+	 *
+	 * The default implementation doesn't support this operation: use
+	 * {@link #parseAllFiles(Iterator, BatchOptions, DocumentResultHandler)} instead.
+	 *
+	 * @param inputs  the sequence of files to parse.
+	 * @param options the options that control how documents are processed.
+	 *
+	 * @return the results of all documents merged together.
+	 */
+	default Results<HtmlParserResult> parseAllFiles(Iterator<? extends FileProvider> inputs, BatchOptions options) {
+		throw new UnsupportedOperationException("Merging the results of multiple files is not supported by " + getClass().getName());
+	}
+
+	/**
+	 * Parses all records of all entities defined in the {@link EntityList} of this parser from multiple files, which
+	 * are processed in parallel, delivering the results of each document to the given {@link DocumentResultHandler}
+	 * as soon as it is parsed. Results are not retained by the parser. Files are only consumed from the given iterator
+	 * when there is capacity to process another document (see {@link BatchOptions#getMaxDocumentsInFlight()}).
+	 *
+	 * The default implementation parses each file sequentially, in the calling thread, with
+	 * {@link #parse(FileProvider)}.
+	 *
+	 * @param inputs  the sequence of files to parse.
+	 * @param options the options that control how documents are processed.
+	 * @param handler the callback that receives the results of each document.
+	 * @param <T>     the type of file to parse.
+	 */
+	default <T extends FileProvider> void parseAllFiles(Iterator<? extends T> inputs, BatchOptions options, DocumentResultHandler<? super T> handler) {
+		for (long i = 0; inputs.hasNext(); i++) {
+			T input = inputs.next();
+			handler.documentParsed(i, input, parse(input));
+		}
+	}
+
+	/**
+	 * Parses the input made available by a {@link ReaderProvider} on demand, producing records of all entities
+	 * as they are requested from the {@link HtmlRecordIterator} returned.
+	 *
+	 * The default implementation doesn't support this operation.
+	 *
+	 * @param readerProvider an input provider with content to be parsed
+	 *
+	 * @return an iterator over the records produced by the parser.
+	 */
+	default HtmlRecordIterator iterate(ReaderProvider readerProvider) {
+		throw new UnsupportedOperationException("Iterating over records is not supported by " + getClass().getName());
+	}
+
+	/**
+	 * Parses the input made available by a {@link FileProvider} on demand, producing records of all entities
+	 * as they are requested from the {@link HtmlRecordIterator} returned.
+	 *
+	 * The default implementation doesn't support this operation.
+	 *
+	 * @param fileProvider the input file with content to be parsed
+	 *
+	 * @return an iterator over the records produced by the parser.
+	 */
+	default HtmlRecordIterator iterate(FileProvider fileProvider) {
+		throw new UnsupportedOperationException("Iterating over records is not supported by " + getClass().getName());
+	}
+
+	/**
+	 * Parses the input made available by a {@link ReaderProvider} on demand, producing only the records of the given
+	 * entity as they are requested from the {@link HtmlRecordIterator} returned. Implementations should not extract
+	 * other entities, so that pages and links are only loaded as needed to produce records of the given entity.
+	 *
+	 * The default implementation skips the records of other entities returned by {@link #iterate(ReaderProvider)}.
+	 *
+	 * @param readerProvider an input provider with content to be parsed
+	 * @param entityName     the name of the entity whose records will be produced.
+	 *
+	 * @return an iterator over the records of the given entity.
+	 */
+	default HtmlRecordIterator iterate(ReaderProvider readerProvider, String entityName) {
+		return new EntityRecordIterator(iterate(readerProvider), entityName);
+	}
+
+	/**
+	 * Parses the input made available by a {@link FileProvider} on demand, producing only the records of the given
+	 * entity as they are requested from the {@link HtmlRecordIterator} returned. Implementations should not extract
+	 * other entities, so that pages and links are only loaded as needed to produce records of the given entity.
+	 *
+	 * The default implementation skips the records of other entities returned by {@link #iterate(FileProvider)}.
+	 *
+	 * @param fileProvider the input file with content to be parsed
+	 * @param entityName   the name of the entity whose records will be produced.
+	 *
+	 * @return an iterator over the records of the given entity.
+	 */
+	default HtmlRecordIterator iterate(FileProvider fileProvider, String entityName) {
+		return new EntityRecordIterator(iterate(fileProvider), entityName);
+	}
+
 	/**
 	 * Returns the {@link HtmlPaginationContext} object with information collected for the configured {@link HtmlPaginator}, if
 	 * any. The information returned comes from the last input processed, and might have been modified by a
 	 * {@link NextInputHandler} if it has been associated with the {@link HtmlPaginator}
-	 * using {@link Paginator#setPaginationHandler(NextInputHandler)}.
+	 * using {@link Paginator#setPaginationHandler(NextInputHandler)}. When the parser is used by multiple threads,
+	 * the information returned comes from the last input processed by the calling thread.
 	 *
 	 * @return the current {@link PaginationContext} with pagination information captured after parsing a given input.
 	 */
 	@Override
 	HtmlPaginationContext getPaginationContext();
+
+	/**
+	 * Returns the number of inputs, including pages loaded by a {@link HtmlPaginator} or a {@link HtmlLinkFollower},
+	 * that were not parsed because they don't contain the literals required by the entities being parsed.
+	 * Only applicable when {@link HtmlParserSettings#setInputPrefilterEnabled(boolean)} is enabled.
+	 *
+	 * @return the number of inputs skipped by this parser so far. The default implementation returns `0`.
+	 */
+	default long getSkippedInputCount() {
+		return 0L;
+	}
 }
@@ -12,7 +12,8 @@ package com.univocity.api.entity.html;
  *
  * <b>Important:</b>This listener is used in a concurrent environment. If you are assigning the same
  * instance to multiple entities make sure your implementation is thread-safe, or limit the number
- * of threads to be used when parsing to <b>1</b> with {@link HtmlParserSettings#setParserThreadCount(int)}
+ * of threads to be used when parsing to <b>1</b> with {@link HtmlParserSettings#setParserThreadCount(int)}, without
+ * providing an executor with {@link HtmlParserSettings#setParserExecutor(java.util.concurrent.ExecutorService)}
  *
  * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
  * @see HtmlParser
@@ -14,17 +14,77 @@ import com.univocity.parsers.common.*;
  * The fields that are captured and the order that they appear in each row depend on how they were configured using
  * {@link HtmlEntitySettings} before parsing.
  *
+ * Records are stored by row unless {@link HtmlParserSettings#setColumnarResultsEnabled(boolean)} is enabled, in which
+ * case values are stored by column and repeating values are dictionary-encoded.
+ *
+ * When the memory budget defined by {@link HtmlParserSettings#setResultMemoryLimit(long)} is exceeded, records of
+ * this result might be moved to files on disk, which are deleted when the result is closed.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
  * @see HtmlParsingContext
  * @see HtmlEntitySettings
  * @see HtmlParser
  * @see HtmlRecord
  */
-public interface HtmlParserResult extends Result<HtmlRecord, HtmlParsingContext> {
+public interface HtmlParserResult extends Result<HtmlRecord, HtmlParsingContext>, AutoCloseable {
 
 	@Override
 	HtmlParserResult getLinkedFieldData(int rowIndex);
 
+	/**
+	 * Returns the results produced by the entities of the {@link HtmlLinkFollower}s that followed the links of the
+	 * record at the given position. When {@link HtmlParserSettings#setLazyLinkedEntityDataEnabled(boolean)} is
+	 * enabled, the results are decoded on every call to this method, so keep a reference to the returned value if
+	 * it is used more than once.
+	 *
+	 * @param rowIndex the position of the parent record in this result.
+	 *
+	 * @return the results of the links followed from the given record.
+	 */
 	@Override
 	Results<HtmlParserResult> getLinkedEntityData(int rowIndex);
+
+	/**
+	 * Indicates whether the input was skipped without being parsed, because it doesn't contain the literals required
+	 * by the entities being parsed. Only applicable when {@link HtmlParserSettings#setInputPrefilterEnabled(boolean)}
+	 * is enabled. A skipped input produces no records.
+	 *
+	 * @return `true` if the input was not parsed, otherwise `false`. The default implementation returns `false`.
+	 */
+	default boolean isInputSkipped() {
+		return false;
+	}
+
+	/**
+	 * Returns the number of times a thread producing records of this entity had to wait because the reorder buffer
+	 * was full, during the parsing process that produced this result. Only applicable when
+	 * {@link HtmlParserSettings#setRecordOrderPreserved(boolean)} is enabled. Use this to adjust the size of the
+	 * buffer with {@link HtmlParserSettings#setReorderBufferSize(int)}.
+	 *
+	 * @return the number of stalls caused by the reorder buffer while producing this result.
+	 */
+	default long getReorderStallCount() {
+		return 0L;
+	}
+
+	/**
+	 * Returns statistics about the records of this result, including the data of its linked fields and linked
+	 * entities, moved to disk because the memory budget defined by {@link HtmlParserSettings#setResultMemoryLimit(long)}
+	 * was exceeded.
+	 *
+	 * @return the statistics of data of this result moved to disk.
+	 */
+	default SpillStatistics getSpillStatistics() {
+		return SpillStatistics.NONE;
+	}
+
+	/**
+	 * Deletes the files created to hold the records of this result moved to disk because the memory budget defined by
+	 * {@link HtmlParserSettings#setResultMemoryLimit(long)} was exceeded. Records held in these files can no longer be
+	 * accessed once the result is closed, while records kept in memory remain available. Files of results that are
+	 * not closed are removed when the JVM exits.
+	 */
+	@Override
+	default void close() {
+	}
 }
@@ -1,9 +1,14 @@
 package com.univocity.api.entity.html;
 
 import com.univocity.api.*;
+import com.univocity.api.io.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.remote.*;
 
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+
 /**
  * Configuration class for the {@link HtmlParser}. Properties that also exist in {@link HtmlEntitySettings} are global
  * and will be used by each entity configuration by default. Individual {@link HtmlEntitySettings} can have their own
@@ -17,8 +22,38 @@ public final class HtmlParserSettings extends RemoteParserSettings<CommonParserS
 
 	private int parserThreadCount = Runtime.getRuntime().availableProcessors();
 
+	private ExecutorService parserExecutor;
+
+	private boolean virtualThreadsEnabled = false;
+
 	private FetchOptions fetchOptions;
 
+	private long recordLimit = -1L;
+
+	private boolean sharedPathPrefixesEnabled = true;
+
+	private boolean pathCompilationEnabled = false;
+
+	private boolean inputPrefilterEnabled = false;
+
+	private boolean sparseDataParsingEnabled = false;
+
+	private boolean recordOrderPreserved = false;
+
+	private int reorderBufferSize = 1024;
+
+	private boolean columnarResultsEnabled = false;
+
+	private int dictionaryEncodingLimit = 1024;
+
+	private long resultMemoryLimit = -1L;
+
+	private FileProvider spillDirectory;
+
+	private boolean lazyLinkedEntityDataEnabled = false;
+
+	private boolean rowReuseEnabled = false;
+
 	/**
 	 * Creates a new {@code HtmlParserSettings}, which will process
 	 * an input to produce records for entities defined by a {@link HtmlEntityList}.  The
@@ -76,9 +111,11 @@ public final class HtmlParserSettings extends RemoteParserSettings<CommonParserS
 	 *
 	 * By default, to the number of available processors available to the JVM will be used (via `Runtime.getRuntime().availableProcessors()`)
 	 *
+	 * This setting is ignored if an executor is provided via {@link #setParserExecutor(ExecutorService)}.
+	 *
 	 * @param parserThreadCount the maximum number of threads to use
 	 */
-	@Range(min = 1, max = 16)
+	@Range(min = 1, max = Integer.MAX_VALUE)
 	@UI(order = 3)
 	public final void setParserThreadCount(int parserThreadCount) {
 		if (parserThreadCount <= 0) {
@@ -87,6 +124,623 @@ public final class HtmlParserSettings extends RemoteParserSettings<CommonParserS
 		this.parserThreadCount = parserThreadCount;
 	}
 
+	/**
+	 * Indicates whether records should be delivered to the {@link com.univocity.api.entity.html.processor.RowProcessor}
+	 * of each entity, and collected in the {@link HtmlParserResult}, in the same order they appear in the input, even
+	 * when multiple threads are used for parsing (see {@link #getParserThreadCount()}, {@link #getParserExecutor()} and
+	 * {@link HtmlParser#parseAll(Iterable, BatchOptions)}).
+	 *
+	 * Every record has a position that follows source order (see {@link HtmlParsingContext#documentPosition()}
+	 * and {@link HtmlParsingContext#recordSequence()}), whether or not this setting is enabled. When enabled, records
+	 * are delivered in the order of their positions, and records produced ahead of their turn are held in a
+	 * reorder buffer of limited size (see {@link #getReorderBufferSize()}). Parsing still runs concurrently: only the
+	 * delivery of records is serialized.
+	 *
+	 * Defaults to `false`, i.e. records are delivered as soon as they are produced, possibly out of source order.
+	 *
+	 * @return `true` if records must be delivered in the order they appear in the input.
+	 */
+	public final boolean isRecordOrderPreserved() {
+		return recordOrderPreserved;
+	}
+
+	/**
+	 * Defines whether records should be delivered to the {@link com.univocity.api.entity.html.processor.RowProcessor}
+	 * of each entity, and collected in the {@link HtmlParserResult}, in the same order they appear in the input, even
+	 * when multiple threads are used for parsing (see {@link #getParserThreadCount()}, {@link #getParserExecutor()} and
+	 * {@link HtmlParser#parseAll(Iterable, BatchOptions)}).
+	 *
+	 * Every record has a position that follows source order (see {@link HtmlParsingContext#documentPosition()}
+	 * and {@link HtmlParsingContext#recordSequence()}), whether or not this setting is enabled. When enabled, records
+	 * are delivered in the order of their positions, and records produced ahead of their turn are held in a
+	 * reorder buffer of limited size (see {@link #setReorderBufferSize(int)}). Parsing still runs concurrently: only
+	 * the delivery of records is serialized.
+	 *
+	 * Defaults to `false`, i.e. records are delivered as soon as they are produced, possibly out of source order.
+	 *
+	 * @param recordOrderPreserved flag indicating whether records must be delivered in the order they appear in the input.
+	 */
+	public final void setRecordOrderPreserved(boolean recordOrderPreserved) {
+		this.recordOrderPreserved = recordOrderPreserved;
+	}
+
+	/**
+	 * Returns the maximum number of records that can be held while waiting for records that come before them in the
+	 * input to be produced. Only applicable when {@link #isRecordOrderPreserved()} is enabled.
+	 *
+	 * When the buffer is full, threads producing records ahead of their turn wait until the buffer is drained, i.e.
+	 * they stall. The number of times this happens is given by {@link HtmlParserResult#getReorderStallCount()}: a high
+	 * count indicates the buffer is too small to let the threads run in parallel.
+	 *
+	 * Defaults to `1024`.
+	 *
+	 * @return the maximum number of records held in the reorder buffer.
+	 */
+	public final int getReorderBufferSize() {
+		return reorderBufferSize;
+	}
+
+	/**
+	 * Defines the maximum number of records that can be held while waiting for records that come before them in the
+	 * input to be produced. Only applicable when {@link #isRecordOrderPreserved()} is enabled.
+	 *
+	 * When the buffer is full, threads producing records ahead of their turn wait until the buffer is drained, i.e.
+	 * they stall. The number of times this happens is given by {@link HtmlParserResult#getReorderStallCount()}: a high
+	 * count indicates the buffer is too small to let the threads run in parallel.
+	 *
+	 * Defaults to `1024`.
+	 *
+	 * @param reorderBufferSize the maximum number of records held in the reorder buffer.
+	 */
+	@Range(min = 1, max = Integer.MAX_VALUE)
+	public final void setReorderBufferSize(int reorderBufferSize) {
+		if (reorderBufferSize <= 0) {
+			reorderBufferSize = 1;
+		}
+		this.reorderBufferSize = reorderBufferSize;
+	}
+
+	/**
+	 * Indicates whether the records collected in each {@link HtmlParserResult} should be stored by column instead of
+	 * by row. In this mode, the values of each field are kept together in a column, and each {@link HtmlRecord} is a
+	 * lightweight view over a position in these columns.
+	 *
+	 * Columns whose values repeat heavily (e.g. categories, currencies, or fields added with
+	 * {@link HtmlEntitySettings#addPersistentField(String)}) are dictionary-encoded: each distinct value is stored
+	 * once, and the column only holds an `int` code for each record. Columns with more distinct values than the
+	 * limit returned by {@link #getDictionaryEncodingLimit()} keep their values as they are.
+	 *
+	 * This greatly reduces the memory used by large results, such as the ones produced by paginated crawls, at the
+	 * cost of building a `String[]` whenever the values of an entire row are requested. It has no effect on the
+	 * rows sent to {@link com.univocity.api.entity.html.processor.RowProcessor}s.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if results should be stored in columnar form.
+	 */
+	public final boolean isColumnarResultsEnabled() {
+		return columnarResultsEnabled;
+	}
+
+	/**
+	 * Defines whether the records collected in each {@link HtmlParserResult} should be stored by column instead of
+	 * by row. In this mode, the values of each field are kept together in a column, and each {@link HtmlRecord} is a
+	 * lightweight view over a position in these columns.
+	 *
+	 * Columns whose values repeat heavily (e.g. categories, currencies, or fields added with
+	 * {@link HtmlEntitySettings#addPersistentField(String)}) are dictionary-encoded: each distinct value is stored
+	 * once, and the column only holds an `int` code for each record. Columns with more distinct values than the
+	 * limit defined by {@link #setDictionaryEncodingLimit(int)} keep their values as they are.
+	 *
+	 * This greatly reduces the memory used by large results, such as the ones produced by paginated crawls, at the
+	 * cost of building a `String[]` whenever the values of an entire row are requested. It has no effect on the
+	 * rows sent to {@link com.univocity.api.entity.html.processor.RowProcessor}s.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param columnarResultsEnabled flag indicating whether results should be stored in columnar form.
+	 */
+	public final void setColumnarResultsEnabled(boolean columnarResultsEnabled) {
+		this.columnarResultsEnabled = columnarResultsEnabled;
+	}
+
+	/**
+	 * Returns the maximum number of distinct values a column can have to remain dictionary-encoded, when
+	 * {@link #isColumnarResultsEnabled()} is enabled. Once a column exceeds this limit, its codes are replaced by
+	 * the values they represent and the dictionary is discarded.
+	 *
+	 * Defaults to `1024`.
+	 *
+	 * @return the maximum number of distinct values of a dictionary-encoded column.
+	 */
+	public final int getDictionaryEncodingLimit() {
+		return dictionaryEncodingLimit;
+	}
+
+	/**
+	 * Defines the maximum number of distinct values a column can have to remain dictionary-encoded, when
+	 * {@link #isColumnarResultsEnabled()} is enabled. Once a column exceeds this limit, its codes are replaced by
+	 * the values they represent and the dictionary is discarded.
+	 *
+	 * Defaults to `1024`.
+	 *
+	 * @param dictionaryEncodingLimit the maximum number of distinct values of a dictionary-encoded column. Use `0`
+	 *                                to disable dictionary encoding.
+	 */
+	@Range(min = 0, max = Integer.MAX_VALUE)
+	public final void setDictionaryEncodingLimit(int dictionaryEncodingLimit) {
+		if (dictionaryEncodingLimit < 0) {
+			dictionaryEncodingLimit = 0;
+		}
+		this.dictionaryEncodingLimit = dictionaryEncodingLimit;
+	}
+
+	/**
+	 * Returns the approximate amount of memory, in bytes, that the records accumulated in the
+	 * {@link HtmlParserResult}s of a parsing process can use. When this budget is exceeded, the records accumulated
+	 * so far, including the results of linked entities and linked fields, are written to compact temporary files in
+	 * the directory given by {@link #getSpillDirectory()}, and their memory is released.
+	 *
+	 * Records moved to disk are read back transparently when accessed through the {@link HtmlParserResult} and
+	 * {@link HtmlRecord} API. Each {@link HtmlParserResult} owns the files holding its records: use
+	 * {@link HtmlParserResult#getSpillStatistics()} to find out how much of its data was moved to disk, and
+	 * {@link HtmlParserResult#close()} (or {@link HtmlParser#closeResults(Results)}) to delete the files once the
+	 * results are no longer needed.
+	 *
+	 * Defaults to `-1`, i.e. all records are kept in memory.
+	 *
+	 * @return the memory budget for accumulated records, in bytes, or `-1` if there is no limit.
+	 */
+	public final long getResultMemoryLimit() {
+		return resultMemoryLimit;
+	}
+
+	/**
+	 * Defines the approximate amount of memory, in bytes, that the records accumulated in the
+	 * {@link HtmlParserResult}s of a parsing process can use. When this budget is exceeded, the records accumulated
+	 * so far, including the results of linked entities and linked fields, are written to compact temporary files in
+	 * the directory given by {@link #getSpillDirectory()}, and their memory is released.
+	 *
+	 * Records moved to disk are read back transparently when accessed through the {@link HtmlParserResult} and
+	 * {@link HtmlRecord} API. Each {@link HtmlParserResult} owns the files holding its records: use
+	 * {@link HtmlParserResult#getSpillStatistics()} to find out how much of its data was moved to disk, and
+	 * {@link HtmlParserResult#close()} (or {@link HtmlParser#closeResults(Results)}) to delete the files once the
+	 * results are no longer needed.
+	 *
+	 * Defaults to `-1`, i.e. all records are kept in memory.
+	 *
+	 * @param resultMemoryLimit the memory budget for accumulated records, in bytes. Any value less than `1` means
+	 *                          there is no limit.
+	 */
+	public final void setResultMemoryLimit(long resultMemoryLimit) {
+		this.resultMemoryLimit = resultMemoryLimit < 1 ? -1L : resultMemoryLimit;
+	}
+
+	/**
+	 * Returns the directory where records are written to when the memory budget defined by
+	 * {@link #setResultMemoryLimit(long)} is exceeded.
+	 *
+	 * Defaults to `null`, in which case the temporary directory of the system (given by the `java.io.tmpdir`
+	 * property) is used.
+	 *
+	 * @return the directory used to store records moved to disk, or `null` if the system's temporary directory is used.
+	 */
+	public final FileProvider getSpillDirectory() {
+		return spillDirectory;
+	}
+
+	/**
+	 * Defines the directory where records are written to when the memory budget defined by
+	 * {@link #setResultMemoryLimit(long)} is exceeded. Prefer a local disk: spill files are read back every time
+	 * the records they hold are accessed.
+	 *
+	 * Defaults to `null`, in which case the temporary directory of the system (given by the `java.io.tmpdir`
+	 * property) is used.
+	 *
+	 * @param spillDirectory the path to the directory used to store records moved to disk. It can contain system
+	 *                       variables enclosed within { and } (e.g. {@code {user.home}/tmp"}). Subdirectories that
+	 *                       don't exist will be created if required.
+	 */
+	public final void setSpillDirectory(String spillDirectory) {
+		if (spillDirectory == null) {
+			this.spillDirectory = null;
+		} else {
+			this.spillDirectory = new FileProvider(spillDirectory);
+		}
+	}
+
+	/**
+	 * Defines the directory where records are written to when the memory budget defined by
+	 * {@link #setResultMemoryLimit(long)} is exceeded. Prefer a local disk: spill files are read back every time
+	 * the records they hold are accessed.
+	 *
+	 * Defaults to `null`, in which case the temporary directory of the system (given by the `java.io.tmpdir`
+	 * property) is used.
+	 *
+	 * @param spillDirectory the directory used to store records moved to disk. Subdirectories that don't exist will
+	 *                       be created if required.
+	 */
+	public final void setSpillDirectory(File spillDirectory) {
+		if (spillDirectory == null) {
+			this.spillDirectory = null;
+		} else {
+			this.spillDirectory = new FileProvider(spillDirectory);
+		}
+	}
+
+	/**
+	 * Indicates whether the results of links followed by a {@link HtmlLinkFollower} should only be materialized when
+	 * accessed through {@link HtmlRecord#getLinkedEntityData()} or {@link HtmlParserResult#getLinkedEntityData(int)}.
+	 *
+	 * When enabled, the records produced by the linked entities of each parent record are kept in a compact encoded
+	 * form, keyed by the parent record, and decoded into {@link Results} only when requested. Records whose links
+	 * are never inspected don't pay for the structure of their linked results. If a memory budget is defined with
+	 * {@link #setResultMemoryLimit(long)}, encoded linked results are the first to be moved to disk.
+	 *
+	 * Decoded results are not retained by the parent record: requesting them again decodes them again.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if linked entity data should be decoded only when accessed.
+	 */
+	public final boolean isLazyLinkedEntityDataEnabled() {
+		return lazyLinkedEntityDataEnabled;
+	}
+
+	/**
+	 * Defines whether the results of links followed by a {@link HtmlLinkFollower} should only be materialized when
+	 * accessed through {@link HtmlRecord#getLinkedEntityData()} or {@link HtmlParserResult#getLinkedEntityData(int)}.
+	 *
+	 * When enabled, the records produced by the linked entities of each parent record are kept in a compact encoded
+	 * form, keyed by the parent record, and decoded into {@link Results} only when requested. Records whose links
+	 * are never inspected don't pay for the structure of their linked results. If a memory budget is defined with
+	 * {@link #setResultMemoryLimit(long)}, encoded linked results are the first to be moved to disk.
+	 *
+	 * Decoded results are not retained by the parent record: requesting them again decodes them again.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param lazyLinkedEntityDataEnabled flag indicating whether linked entity data should be decoded only when accessed.
+	 */
+	public final void setLazyLinkedEntityDataEnabled(boolean lazyLinkedEntityDataEnabled) {
+		this.lazyLinkedEntityDataEnabled = lazyLinkedEntityDataEnabled;
+	}
+
+	/**
+	 * Indicates whether the parser should reuse the `String[]` given to the
+	 * {@link com.univocity.api.entity.html.processor.RowProcessor} of each entity, instead of allocating a new array
+	 * for every record. When parsing millions of records, this avoids a significant amount of garbage.
+	 *
+	 * Rows are only reused with processors that implement {@link com.univocity.api.entity.html.processor.RowReuseSupport}
+	 * and declare they don't keep the rows they receive. These processors must copy any values they need to keep
+	 * after {@link com.univocity.api.entity.html.processor.RowProcessor#rowProcessed(String[], HtmlParsingContext)}
+	 * returns. All other processors keep receiving a new array for each record, as do the {@link HtmlParserResult}s.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if row buffers are reused for processors that support it.
+	 */
+	public final boolean isRowReuseEnabled() {
+		return rowReuseEnabled;
+	}
+
+	/**
+	 * Defines whether the parser should reuse the `String[]` given to the
+	 * {@link com.univocity.api.entity.html.processor.RowProcessor} of each entity, instead of allocating a new array
+	 * for every record. When parsing millions of records, this avoids a significant amount of garbage.
+	 *
+	 * Rows are only reused with processors that implement {@link com.univocity.api.entity.html.processor.RowReuseSupport}
+	 * and declare they don't keep the rows they receive. These processors must copy any values they need to keep
+	 * after {@link com.univocity.api.entity.html.processor.RowProcessor#rowProcessed(String[], HtmlParsingContext)}
+	 * returns. All other processors keep receiving a new array for each record, as do the {@link HtmlParserResult}s.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param rowReuseEnabled flag indicating whether row buffers should be reused for processors that support it.
+	 */
+	public final void setRowReuseEnabled(boolean rowReuseEnabled) {
+		this.rowReuseEnabled = rowReuseEnabled;
+	}
+
+	/**
+	 * Returns the maximum number of records to be produced for each entity. Used by default by all entities that
+	 * don't define their own limit with {@link HtmlEntitySettings#setRecordLimit(long)}. The limit applies to each
+	 * entity separately, not to the total number of records: with a limit of `10` and two entities, up to `20`
+	 * records can be produced.
+	 *
+	 * Once every entity being parsed has produced the number of records it is limited to, the parser stops
+	 * traversing the HTML tree, and won't load any further pages with the {@link HtmlPaginator} nor follow any
+	 * links with a {@link HtmlLinkFollower}.
+	 *
+	 * Defaults to `-1`, i.e. no limit.
+	 *
+	 * @return the maximum number of records per entity, or `-1` if there is no limit
+	 */
+	public final long getRecordLimit() {
+		return recordLimit;
+	}
+
+	/**
+	 * Defines the maximum number of records to be produced for each entity. Used by default by all entities that
+	 * don't define their own limit with {@link HtmlEntitySettings#setRecordLimit(long)}. The limit applies to each
+	 * entity separately, not to the total number of records: with a limit of `10` and two entities, up to `20`
+	 * records can be produced.
+	 *
+	 * Once every entity being parsed has produced the number of records it is limited to, the parser stops
+	 * traversing the HTML tree, and won't load any further pages with the {@link HtmlPaginator} nor follow any
+	 * links with a {@link HtmlLinkFollower}.
+	 *
+	 * Defaults to `-1`, i.e. no limit.
+	 *
+	 * @param recordLimit the maximum number of records per entity. Any value less than `0` removes the limit.
+	 */
+	public final void setRecordLimit(long recordLimit) {
+		this.recordLimit = recordLimit < 0 ? -1L : recordLimit;
+	}
+
+	/**
+	 * Indicates whether the parser evaluates the matching rules shared by multiple fields only once for each
+	 * candidate element. Fields created from the same {@link com.univocity.api.entity.html.builders.PartialPath}
+	 * (including its copies made with {@link com.univocity.api.entity.html.builders.PartialPath#copyPath()}) or the
+	 * same {@link com.univocity.api.entity.html.builders.Group} share the rules defined before each field was added.
+	 * When enabled, the element matched by these common rules is handed over to the rules specific to each field,
+	 * instead of having the common rules evaluated again for every field.
+	 *
+	 * Defaults to `true`.
+	 *
+	 * @return `true` if common path prefixes are evaluated only once, otherwise `false`.
+	 */
+	public final boolean isSharedPathPrefixesEnabled() {
+		return sharedPathPrefixesEnabled;
+	}
+
+	/**
+	 * Defines whether the parser should evaluate the matching rules shared by multiple fields only once for each
+	 * candidate element. Fields created from the same {@link com.univocity.api.entity.html.builders.PartialPath}
+	 * (including its copies made with {@link com.univocity.api.entity.html.builders.PartialPath#copyPath()}) or the
+	 * same {@link com.univocity.api.entity.html.builders.Group} share the rules defined before each field was added.
+	 * When enabled, the element matched by these common rules is handed over to the rules specific to each field,
+	 * instead of having the common rules evaluated again for every field.
+	 *
+	 * Defaults to `true`.
+	 *
+	 * @param sharedPathPrefixesEnabled flag indicating whether common path prefixes should be evaluated only once.
+	 */
+	public final void setSharedPathPrefixesEnabled(boolean sharedPathPrefixesEnabled) {
+		this.sharedPathPrefixesEnabled = sharedPathPrefixesEnabled;
+	}
+
+	/**
+	 * Indicates whether the paths of all fields, groups and record triggers should be compiled into specialized
+	 * classes once the {@link HtmlParser} is created, instead of being interpreted while the input is processed.
+	 *
+	 * Compiled paths have their tag names, attribute names and texts to match embedded as constants, which makes their
+	 * evaluation much friendlier to the JIT compiler. This takes some time when the parser is created, so it only
+	 * pays off when the same {@link HtmlParser} instance processes many documents, or very large ones.
+	 * If the JVM does not allow classes to be defined at runtime, paths will be interpreted as usual.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if paths should be compiled, otherwise `false`.
+	 */
+	public final boolean isPathCompilationEnabled() {
+		return pathCompilationEnabled;
+	}
+
+	/**
+	 * Defines whether the paths of all fields, groups and record triggers should be compiled into specialized
+	 * classes once the {@link HtmlParser} is created, instead of being interpreted while the input is processed.
+	 *
+	 * Compiled paths have their tag names, attribute names and texts to match embedded as constants, which makes their
+	 * evaluation much friendlier to the JIT compiler. This takes some time when the parser is created, so it only
+	 * pays off when the same {@link HtmlParser} instance processes many documents, or very large ones.
+	 * If the JVM does not allow classes to be defined at runtime, paths will be interpreted as usual.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param pathCompilationEnabled flag indicating whether paths should be compiled.
+	 */
+	public final void setPathCompilationEnabled(boolean pathCompilationEnabled) {
+		this.pathCompilationEnabled = pathCompilationEnabled;
+	}
+
+	/**
+	 * Indicates whether the raw content of each input should be scanned for literals that are required by the
+	 * entities being parsed, before the HTML tree is built. Required literals are derived from the matching rules of
+	 * each path, e.g. values given to {@link com.univocity.api.entity.html.builders.BasicElementFilter#id(Object)},
+	 * {@link com.univocity.api.entity.html.builders.BasicElementFilter#classes(String, String...)} or
+	 * {@link com.univocity.api.entity.html.builders.BasicElementFilter#withExactText(String)}.
+	 *
+	 * If the input doesn't contain the literals required by any entity, it is not parsed at all. Such inputs are
+	 * identified by {@link HtmlParserResult#isInputSkipped()} and counted by {@link HtmlParser#getSkippedInputCount()}.
+	 * Entities whose paths have no required literals always cause the input to be parsed.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if inputs that can't produce any records should be skipped, otherwise `false`.
+	 */
+	public final boolean isInputPrefilterEnabled() {
+		return inputPrefilterEnabled;
+	}
+
+	/**
+	 * Defines whether the raw content of each input should be scanned for literals that are required by the
+	 * entities being parsed, before the HTML tree is built. Required literals are derived from the matching rules of
+	 * each path, e.g. values given to {@link com.univocity.api.entity.html.builders.BasicElementFilter#id(Object)},
+	 * {@link com.univocity.api.entity.html.builders.BasicElementFilter#classes(String, String...)} or
+	 * {@link com.univocity.api.entity.html.builders.BasicElementFilter#withExactText(String)}.
+	 *
+	 * If the input doesn't contain the literals required by any entity, it is not parsed at all. Such inputs are
+	 * identified by {@link HtmlParserResult#isInputSkipped()} and counted by {@link HtmlParser#getSkippedInputCount()}.
+	 * Entities whose paths have no required literals always cause the input to be parsed.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param inputPrefilterEnabled flag indicating whether inputs that can't produce any records should be skipped.
+	 */
+	public final void setInputPrefilterEnabled(boolean inputPrefilterEnabled) {
+		this.inputPrefilterEnabled = inputPrefilterEnabled;
+	}
+
+	/**
+	 * Indicates whether the parser should skip over the content of comments and of `<script>`, `<style>`,
+	 * `<noscript>` and `<template>` elements, only looking for where they end. No text, data or comment nodes
+	 * (see {@link HtmlElement#isData()} and {@link HtmlElement#isComment()}) are created for their contents,
+	 * unless the path of a field, group or record trigger of some entity references them.
+	 *
+	 * On pages with large scripts and styles this can reduce the parsing time considerably. Note that
+	 * {@link HtmlElement#data()} will return an empty `String` for elements whose content has been skipped.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if the contents of data elements and comments not referenced by any path should be skipped,
+	 * otherwise `false`.
+	 */
+	public final boolean isSparseDataParsingEnabled() {
+		return sparseDataParsingEnabled;
+	}
+
+	/**
+	 * Defines whether the parser should skip over the content of comments and of `<script>`, `<style>`,
+	 * `<noscript>` and `<template>` elements, only looking for where they end. No text, data or comment nodes
+	 * (see {@link HtmlElement#isData()} and {@link HtmlElement#isComment()}) are created for their contents,
+	 * unless the path of a field, group or record trigger of some entity references them.
+	 *
+	 * On pages with large scripts and styles this can reduce the parsing time considerably. Note that
+	 * {@link HtmlElement#data()} will return an empty `String` for elements whose content has been skipped.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param sparseDataParsingEnabled flag indicating whether the contents of data elements and comments not
+	 *                                 referenced by any path should be skipped.
+	 */
+	public final void setSparseDataParsingEnabled(boolean sparseDataParsingEnabled) {
+		this.sparseDataParsingEnabled = sparseDataParsingEnabled;
+	}
+
+	/**
+	 * Returns the {@link ExecutorService} used by the parser to run its parsing tasks. When provided, the parser
+	 * splits its work into fine-grained tasks (the processing of each entity, input, linked page and paginated page)
+	 * and submits them to this executor, without limiting the number of threads in use. The
+	 * {@link #getParserThreadCount()} is not used in this case.
+	 *
+	 * A {@link ForkJoinPool} is recommended as idle threads will steal tasks from busy ones, keeping all cores
+	 * in use when the amount of work for each input varies.
+	 *
+	 * Defaults to `null`, in which case the parser manages its own threads, up to {@link #getParserThreadCount()}.
+	 *
+	 * @return the executor to use for parsing tasks, or `null` if the parser should manage its own threads.
+	 */
+	public final ExecutorService getParserExecutor() {
+		return parserExecutor;
+	}
+
+	/**
+	 * Defines the {@link ExecutorService} used by the parser to run its parsing tasks. When provided, the parser
+	 * splits its work into fine-grained tasks (the processing of each entity, input, linked page and paginated page)
+	 * and submits them to this executor, without limiting the number of threads in use. The
+	 * {@link #getParserThreadCount()} is not used in this case.
+	 *
+	 * A {@link ForkJoinPool} is recommended as idle threads will steal tasks from busy ones, keeping all cores
+	 * in use when the amount of work for each input varies.
+	 *
+	 * The parser never shuts down an executor provided by the user.
+	 *
+	 * @param parserExecutor the executor to use for parsing tasks, or `null` if the parser should manage its own threads.
+	 */
+	public final void setParserExecutor(ExecutorService parserExecutor) {
+		this.parserExecutor = parserExecutor;
+	}
+
+	/**
+	 * Indicates whether remote content, i.e. pages loaded by the {@link HtmlPaginator} or by a {@link HtmlLinkFollower},
+	 * should be fetched using virtual threads. Each request then runs on its own virtual thread, which doesn't hold
+	 * an operating system thread while waiting for a response, allowing thousands of slow requests to be in flight
+	 * at the same time. The parsing of the content fetched still runs on the threads used by the parser (see
+	 * {@link #getParserThreadCount()} and {@link #getParserExecutor()}).
+	 *
+	 * Virtual threads require Java 21 or later. On older versions of Java this setting has no effect, and remote
+	 * content will be fetched using the {@link HtmlEntityList#getDownloadThreadPool()}.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if remote content should be fetched using virtual threads, when available.
+	 */
+	public final boolean isVirtualThreadsEnabled() {
+		return virtualThreadsEnabled;
+	}
+
+	/**
+	 * Defines whether remote content, i.e. pages loaded by the {@link HtmlPaginator} or by a {@link HtmlLinkFollower},
+	 * should be fetched using virtual threads. Each request then runs on its own virtual thread, which doesn't hold
+	 * an operating system thread while waiting for a response, allowing thousands of slow requests to be in flight
+	 * at the same time. The parsing of the content fetched still runs on the threads used by the parser (see
+	 * {@link #getParserThreadCount()} and {@link #getParserExecutor()}).
+	 *
+	 * Virtual threads require Java 21 or later. On older versions of Java this setting has no effect, and remote
+	 * content will be fetched using the {@link HtmlEntityList#getDownloadThreadPool()}.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param virtualThreadsEnabled flag indicating whether remote content should be fetched using virtual threads,
+	 *                              when available.
+	 */
+	public final void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+		this.virtualThreadsEnabled = virtualThreadsEnabled;
+	}
+
+	/**
+	 * Creates a new executor that starts a virtual thread for each task submitted to it, to be used for fetching
+	 * remote content when {@link #isVirtualThreadsEnabled()} is `true`.
+	 *
+	 * A new executor is returned on every call and nothing is retained by these settings: the caller owns the executor
+	 * and must shut it down once done with it. The parser creates one executor per parsing process, and shuts it down
+	 * when the process ends.
+	 *
+	 * @return a new executor of virtual threads, or `null` if virtual threads are disabled or not supported
+	 * by the running JVM.
+	 */
+	public final ExecutorService newVirtualThreadExecutor() {
+		if (!virtualThreadsEnabled || VirtualThreads.FACTORY == null) {
+			return null;
+		}
+		return VirtualThreads.newExecutor(VirtualThreads.FACTORY);
+	}
+
+	/**
+	 * Looks up the factory of virtual thread executors once, so JVMs without support for virtual threads
+	 * don't pay for a failed lookup on every parse.
+	 */
+	private static final class VirtualThreads {
+		private static final Method FACTORY = lookup();
+
+		private static Method lookup() {
+			Method factory;
+			try {
+				factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			} catch (NoSuchMethodException e) {
+				return null;
+			}
+			//preview versions of Java throw UnsupportedOperationException if preview features are disabled
+			ExecutorService probe = newExecutor(factory);
+			if (probe == null) {
+				return null;
+			}
+			probe.shutdown();
+			return factory;
+		}
+
+		private static ExecutorService newExecutor(Method factory) {
+			try {
+				return (ExecutorService) factory.invoke(null);
+			} catch (InvocationTargetException e) {
+				return null;
+			} catch (IllegalAccessException e) {
+				return null;
+			}
+		}
+	}
+
 	@Override
 	public String getDefaultFileExtension() {
 		return "html";
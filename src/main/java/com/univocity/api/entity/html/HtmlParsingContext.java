@@ -123,4 +123,35 @@ public interface HtmlParsingContext extends Context {
 	 * @return the source of the document being parsed.
 	 */
 	Object documentSource();
+
+	/**
+	 * Returns the position of the document being parsed relative to the inputs given to the parser: the index of the
+	 * input, the page loaded by the {@link HtmlPaginator} and, for linked documents, the links followed to reach it.
+	 * Positions follow source order and are assigned as documents are found, so they are the same regardless of how
+	 * many documents are parsed in parallel.
+	 *
+	 * Records are only delivered in source order when {@link HtmlParserSettings#isRecordOrderPreserved()} is enabled.
+	 * Otherwise records of different documents are delivered as soon as they are produced, and their positions
+	 * (along with {@link #recordSequence()}) can be used to restore the source order.
+	 *
+	 * @return the position of the current document, or `null` if the parser doesn't track document positions.
+	 * @see HtmlParserSettings#setRecordOrderPreserved(boolean)
+	 */
+	default DocumentPosition documentPosition() {
+		return null;
+	}
+
+	/**
+	 * Returns the sequence number of the current record within the document being parsed, starting from `0` for
+	 * each entity and increasing by one with each record of that entity, in the order records appear in the document.
+	 * Together with {@link #documentPosition()}, identifies the position of the record in the input, regardless of
+	 * the thread that produced it.
+	 *
+	 * @return the sequence number of the current record in the current document, or `-1` if the parser doesn't track
+	 * record sequences.
+	 * @see HtmlParserSettings#setRecordOrderPreserved(boolean)
+	 */
+	default long recordSequence() {
+		return -1L;
+	}
 }
@@ -11,6 +11,9 @@ import com.univocity.parsers.common.*;
 /**
  * A {@link HtmlRecord} is a record that can be linked with one more more {@link HtmlRecord}s.
  *
+ * When {@link HtmlParserSettings#setColumnarResultsEnabled(boolean)} is enabled, records are views over the columns
+ * of the {@link HtmlParserResult} they belong to, and their values are only decoded when requested.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
  * @see ResultRecordMetaData
  */
@@ -19,6 +22,13 @@ public interface HtmlRecord extends ResultRecord<HtmlParsingContext> {
 	@Override
 	HtmlParserResult getLinkedFieldData();
 
+	/**
+	 * Returns the results produced by the entities of the {@link HtmlLinkFollower}s that followed the links of this
+	 * record. When {@link HtmlParserSettings#setLazyLinkedEntityDataEnabled(boolean)} is enabled, the results are
+	 * decoded on every call to this method, so keep a reference to the returned value if it is used more than once.
+	 *
+	 * @return the results of the links followed from this record.
+	 */
 	@Override
 	Results<HtmlParserResult> getLinkedEntityData();
 
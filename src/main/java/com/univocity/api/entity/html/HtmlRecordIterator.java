@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * An {@link Iterator} over the records produced by the {@link HtmlParser} for an input, obtained via
+ * {@link HtmlParser#iterate(com.univocity.api.io.ReaderProvider)} and similar methods.
+ *
+ * Records are produced lazily: the parser only advances over the input (and only loads further pages with the
+ * {@link HtmlPaginator} or follows links with a {@link HtmlLinkFollower}) while records are being consumed. If the
+ * iterator is not consumed, the parser waits, which keeps memory usage constant regardless of the size of the input.
+ *
+ * Records of all entities are returned in the order they are produced. Use {@link #getEntityName()} to identify
+ * the entity of the last record returned by {@link #next()}.
+ *
+ * Always close the iterator if it is not fully consumed, so the parsing process is stopped and any resources are
+ * released. Closing is automatic once {@link #hasNext()} returns `false`.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParser
+ * @see HtmlRecord
+ */
+public interface HtmlRecordIterator extends Iterator<HtmlRecord>, Closeable {
+
+	/**
+	 * Returns the name of the entity of the last record returned by {@link #next()}
+	 *
+	 * @return the entity name of the current record, or `null` if {@link #next()} has not been called yet.
+	 */
+	String getEntityName();
+
+	/**
+	 * Stops the parsing process and releases all resources associated with it. Calling {@link #hasNext()} after
+	 * the iterator is closed returns `false`.
+	 *
+	 * This method can be invoked from any thread, and will abort any download in progress.
+	 */
+	@Override
+	void close();
+}
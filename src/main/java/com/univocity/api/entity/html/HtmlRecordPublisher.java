@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import com.univocity.api.io.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Publishes the records produced by the {@link HtmlParser} for an input to subscribers, following the semantics of
+ * Reactive Streams: records are only produced when requested by the subscriber. While there's no demand, the parser
+ * doesn't advance over the input and won't load further pages with the {@link HtmlPaginator} nor follow links with
+ * a {@link HtmlLinkFollower}. Cancelling a subscription stops the parsing process, aborting any download in progress.
+ *
+ * Each subscriber gets its own parsing process over the input. When a publisher is created for a single entity, only
+ * that entity is extracted (see {@link HtmlParser#iterate(ReaderProvider, String)}), so no pages are loaded nor links
+ * followed to produce records of other entities.
+ *
+ * {@link Subscription#request(long)} and {@link Subscription#cancel()} never block: records are produced and
+ * delivered to the subscriber by a task submitted to the {@link HtmlParserSettings#getParserExecutor()} or, if no
+ * executor is defined, to a pool of daemon threads shared by all publishers. Signals to a subscriber are never sent
+ * concurrently.
+ *
+ * Instances are obtained via {@link HtmlParser#publisher(ReaderProvider, String)} or
+ * {@link HtmlParser#publisher(FileProvider, String)}. On Java 9 or later, a `java.util.concurrent.Flow.Publisher` can
+ * be created with a simple adapter:
+ *
+ * ```java
+ * Flow.Publisher<HtmlRecord> flowPublisher = flowSubscriber -> htmlRecordPublisher.subscribe(
+ *     new HtmlRecordPublisher.Subscriber() {
+ *         public void onSubscribe(HtmlRecordPublisher.Subscription s) {
+ *             flowSubscriber.onSubscribe(new Flow.Subscription() {
+ *                 public void request(long n) { s.request(n); }
+ *                 public void cancel() { s.cancel(); }
+ *             });
+ *         }
+ *         public void onNext(HtmlRecord record) { flowSubscriber.onNext(record); }
+ *         public void onError(Throwable error) { flowSubscriber.onError(error); }
+ *         public void onComplete() { flowSubscriber.onComplete(); }
+ *     });
+ * ```
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParser
+ * @see HtmlRecordIterator
+ */
+public final class HtmlRecordPublisher {
+
+	/**
+	 * Receives records from a {@link HtmlRecordPublisher}, after requesting them through the {@link Subscription}
+	 * received in {@link #onSubscribe(Subscription)}.
+	 */
+	public interface Subscriber {
+
+		/**
+		 * Invoked once, after {@link HtmlRecordPublisher#subscribe(Subscriber)}. No records will be delivered
+		 * until {@link Subscription#request(long)} is called.
+		 *
+		 * @param subscription the subscription used to request records or to cancel the parsing process.
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Invoked for each record produced by the parser, never exceeding the number of records requested.
+		 * If this method throws an exception, the subscription is cancelled and the parsing process is stopped.
+		 *
+		 * @param record the next record produced by the parser.
+		 */
+		void onNext(HtmlRecord record);
+
+		/**
+		 * Invoked once if the parsing process fails. No other method will be invoked afterwards.
+		 *
+		 * @param error the error that stopped the parsing process.
+		 */
+		void onError(Throwable error);
+
+		/**
+		 * Invoked once all records have been produced. No other method will be invoked afterwards.
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * Controls the flow of records from a {@link HtmlRecordPublisher} to a {@link Subscriber}.
+	 */
+	public interface Subscription {
+
+		/**
+		 * Requests more records to be delivered to the subscriber.
+		 *
+		 * @param n the number of additional records to be delivered. Must be positive.
+		 */
+		void request(long n);
+
+		/**
+		 * Stops the parsing process. Downloads in progress are aborted and no further records are delivered.
+		 */
+		void cancel();
+	}
+
+	private final HtmlParser parser;
+	private final HtmlParserSettings settings;
+	private final Object input;
+	private final String entityName;
+
+	HtmlRecordPublisher(HtmlParser parser, HtmlParserSettings settings, Object input, String entityName) {
+		this.parser = parser;
+		this.settings = settings;
+		this.input = input;
+		this.entityName = entityName;
+	}
+
+	/**
+	 * Returns the name of the entity whose records are published.
+	 *
+	 * @return the entity name, or `null` if records of all entities are published.
+	 */
+	public String getEntityName() {
+		return entityName;
+	}
+
+	/**
+	 * Subscribes to the records produced by the parser. A new parsing process is started for each subscriber, once it
+	 * requests its first records.
+	 *
+	 * @param subscriber the subscriber that will receive the records.
+	 */
+	public void subscribe(Subscriber subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber cannot be null");
+		}
+		Executor executor = settings.getParserExecutor();
+		if (executor == null) {
+			executor = DefaultExecutor.INSTANCE;
+		}
+		subscriber.onSubscribe(new RecordSubscription(subscriber, executor));
+	}
+
+	private HtmlRecordIterator iterate() {
+		if (input instanceof FileProvider) {
+			return entityName == null ? parser.iterate((FileProvider) input) : parser.iterate((FileProvider) input, entityName);
+		}
+		return entityName == null ? parser.iterate((ReaderProvider) input) : parser.iterate((ReaderProvider) input, entityName);
+	}
+
+	private static final class DefaultExecutor {
+		static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "html-record-publisher-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private final class RecordSubscription implements Subscription, Runnable {
+
+		private final Subscriber subscriber;
+		private final Executor executor;
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger pending = new AtomicInteger();
+		private final AtomicReference<Throwable> invalidRequest = new AtomicReference<Throwable>();
+		private volatile HtmlRecordIterator iterator;
+		private volatile boolean cancelled;
+		private volatile boolean done;
+
+		RecordSubscription(Subscriber subscriber, Executor executor) {
+			this.subscriber = subscriber;
+			this.executor = executor;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				//signalled by the drain loop, so that signals are never sent concurrently or after a terminal signal
+				invalidRequest.compareAndSet(null, new IllegalArgumentException("Number of records requested must be positive. Got " + n));
+				schedule();
+				return;
+			}
+			long current;
+			long updated;
+			do {
+				current = requested.get();
+				updated = current + n;
+				if (updated < 0) {
+					updated = Long.MAX_VALUE;
+				}
+			} while (!requested.compareAndSet(current, updated));
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			HtmlRecordIterator iterator = this.iterator;
+			if (iterator != null) {
+				iterator.close();
+			}
+		}
+
+		private void schedule() {
+			if (pending.getAndIncrement() != 0) {
+				return;
+			}
+			try {
+				executor.execute(this);
+			} catch (RejectedExecutionException e) {
+				//no drain task is running, so signalling the subscriber from here is safe
+				if (!done && !cancelled) {
+					cancelled = true;
+					finish();
+					subscriber.onError(e);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+				if (signalInvalidRequest()) {
+					return;
+				}
+				long demand = requested.get();
+				long delivered = 0;
+				while (delivered != demand && !cancelled && !done && invalidRequest.get() == null) {
+					HtmlRecord record;
+					try {
+						record = nextRecord();
+					} catch (Throwable e) {
+						finish();
+						subscriber.onError(e);
+						return;
+					}
+					if (record == null) {
+						finish();
+						if (!cancelled) {
+							subscriber.onComplete();
+						}
+						return;
+					}
+					try {
+						subscriber.onNext(record);
+					} catch (Throwable e) {
+						cancelled = true;
+						finish();
+						pending.set(0);
+						throw e;
+					}
+					delivered++;
+				}
+				if (delivered != 0 && demand != Long.MAX_VALUE) {
+					requested.addAndGet(-delivered);
+				}
+				missed = pending.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private boolean signalInvalidRequest() {
+			Throwable error = invalidRequest.get();
+			if (error == null) {
+				return false;
+			}
+			if (!done && !cancelled) {
+				cancelled = true;
+				finish();
+				subscriber.onError(error);
+			}
+			return true;
+		}
+
+		private HtmlRecord nextRecord() {
+			if (iterator == null) {
+				iterator = iterate();
+				if (cancelled) {
+					iterator.close();
+					return null;
+				}
+			}
+			return iterator.hasNext() ? iterator.next() : null;
+		}
+
+		private void finish() {
+			done = true;
+			if (iterator != null) {
+				iterator.close();
+			}
+		}
+	}
+}
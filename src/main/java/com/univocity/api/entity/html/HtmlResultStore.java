@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import com.univocity.api.io.*;
+
+/**
+ * Stores results produced by the {@link HtmlParser} in files, and reopens them, so that data extracted once can be
+ * queried many times, from any process, without running the parser again. Doesn't depend on the configuration of any
+ * parser: results are read back exactly as they were written.
+ *
+ * Use the static methods {@link HtmlParser#openResultWriter(FileProvider)} and
+ * {@link HtmlParser#openResults(FileProvider)} instead of using this interface directly.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlResultWriter
+ * @see StoredHtmlResults
+ */
+public interface HtmlResultStore {
+
+	/**
+	 * Creates a file to store results produced by the {@link HtmlParser}. Records are written as they are given
+	 * to the {@link HtmlResultWriter} returned, and the index of the file is written when it is closed.
+	 *
+	 * @param output the file where the results will be written to. Will be overwritten if it already exists.
+	 *
+	 * @return a writer of records into the given file.
+	 */
+	HtmlResultWriter newWriter(FileProvider output);
+
+	/**
+	 * Reopens results stored in a file created by a {@link HtmlResultWriter}. The file is memory-mapped and records
+	 * are only decoded when accessed, so they become invalid once the results are closed.
+	 *
+	 * @param input the file with the results to be read.
+	 *
+	 * @return the results stored in the given file, which must be closed once no longer needed.
+	 */
+	StoredHtmlResults open(FileProvider input);
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import com.univocity.parsers.common.*;
+
+import java.io.*;
+
+/**
+ * Writes records produced by the {@link HtmlParser} into a file that can be reopened with
+ * {@link HtmlParser#openResults(com.univocity.api.io.FileProvider)}, including the data of linked fields and linked
+ * entities. Obtained via {@link HtmlParser#openResultWriter(com.univocity.api.io.FileProvider)}.
+ *
+ * Records are written as they are given, so results don't need to be held in memory: combined with
+ * {@link HtmlParser#iterate(com.univocity.api.io.ReaderProvider)}, records can be stored while the input is parsed:
+ *
+ * ```java
+ * try (HtmlResultWriter writer = HtmlParser.openResultWriter(new FileProvider("results.bin"))) {
+ *     writer.write(parser.iterate(input));
+ * }
+ * ```
+ *
+ * The file holds the headers of each entity, the values of each record and an index with the position of each
+ * record and its linked data, which is written when the writer is closed. Files of writers that were not closed
+ * can't be reopened.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlResultStore
+ * @see StoredHtmlResults
+ */
+public interface HtmlResultWriter extends Closeable {
+
+	/**
+	 * Writes a record, along with its linked field and linked entity data.
+	 *
+	 * @param entityName the name of the entity that produced the record.
+	 * @param record     the record to write.
+	 */
+	void write(String entityName, HtmlRecord record);
+
+	/**
+	 * Writes all records returned by the given iterator, as it is consumed, then closes the iterator.
+	 *
+	 * @param records the records to write.
+	 */
+	void write(HtmlRecordIterator records);
+
+	/**
+	 * Writes all records of the given results.
+	 *
+	 * @param results the results to write.
+	 */
+	void write(Results<HtmlParserResult> results);
+
+	/**
+	 * Returns the number of records written so far.
+	 *
+	 * @return the record count.
+	 */
+	long getRecordCount();
+
+	/**
+	 * Writes the index of the file and releases all resources associated with this writer. Records can't be
+	 * written after the writer is closed.
+	 */
+	@Override
+	void close();
+}
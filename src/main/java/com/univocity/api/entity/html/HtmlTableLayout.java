@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import java.lang.ref.*;
+import java.util.*;
+
+/**
+ * A grid model of a HTML `<table>`, where each cell is placed at the row and column it visually occupies, taking into
+ * account the `rowspan` and `colspan` attributes of every `<td>` and `<th>` element. A cell that spans multiple
+ * rows or columns occupies all positions of the grid covered by it.
+ *
+ * Building the layout requires a full pass over the rows of the table. It is meant to be built once per table, on
+ * first need, and then reused for every cell lookup (see {@link HtmlElement#tableLayout()}). After that, resolving
+ * the position of any cell, or the cell at any position, takes constant time. This is what allows operations such
+ * as {@link com.univocity.api.entity.html.builders.ContentReader#getTextAbove()},
+ * {@link com.univocity.api.entity.html.builders.ContentReader#getHeadingText(int)} and
+ * {@link com.univocity.api.entity.html.builders.BasicElementFilter#underHeader(String)} to run efficiently over
+ * tables with many thousands of rows.
+ *
+ * Rows of nested tables are not part of the layout of the enclosing table.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlElement#tableLayout()
+ */
+public final class HtmlTableLayout {
+
+	private static final int MAX_COLSPAN = 1000;
+	private static final int MAX_ROWSPAN = 65534;
+	private static final int CACHE_SIZE = 16;
+
+	private static final Map<TableKey, SoftReference<HtmlTableLayout>> cache = new LinkedHashMap<TableKey, SoftReference<HtmlTableLayout>>(CACHE_SIZE, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TableKey, SoftReference<HtmlTableLayout>> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private final HtmlElement table;
+	private final HtmlElement[] rows;
+	private final HtmlElement[][] grid;
+	private final int columnCount;
+	private final Map<HtmlElement, int[]> positions = new IdentityHashMap<HtmlElement, int[]>();
+	private final Map<HtmlElement, Integer> rowIndexes = new IdentityHashMap<HtmlElement, Integer>();
+
+	/**
+	 * Builds the grid layout of the given `<table>` element.
+	 *
+	 * @param table the table whose rows and cells will be mapped into a grid.
+	 *
+	 * @throws IllegalArgumentException if the given element is `null` or not a `<table>`
+	 */
+	public HtmlTableLayout(HtmlElement table) {
+		if (table == null || !"table".equalsIgnoreCase(table.tagName())) {
+			throw new IllegalArgumentException("Element must be a <table>. Got: " + (table == null ? null : table.tagName()));
+		}
+		this.table = table;
+
+		List<HtmlElement> rowList = new ArrayList<HtmlElement>();
+		List<Integer> sections = new ArrayList<Integer>();
+		collectRows(table, rowList, sections);
+		this.rows = rowList.toArray(new HtmlElement[0]);
+
+		int[] sectionEnds = new int[rows.length];
+		for (int r = rows.length - 1; r >= 0; r--) {
+			boolean lastOfSection = r == rows.length - 1 || !sections.get(r).equals(sections.get(r + 1));
+			sectionEnds[r] = lastOfSection ? r + 1 : sectionEnds[r + 1];
+		}
+
+		List<HtmlElement[]> gridRows = new ArrayList<HtmlElement[]>(rows.length);
+		int width = 0;
+		for (int r = 0; r < rows.length; r++) {
+			int sectionEnd = sectionEnds[r];
+			rowIndexes.put(rows[r], r);
+
+			int c = 0;
+			for (HtmlElement cell : rows[r].children()) {
+				if (!isCell(cell)) {
+					continue;
+				}
+				HtmlElement[] row = ensureRow(gridRows, r, c + 1);
+				while (c < row.length && row[c] != null) {
+					c++;
+				}
+
+				int colspan = span(cell, "colspan", 1, MAX_COLSPAN);
+				int rowspan = span(cell, "rowspan", 0, MAX_ROWSPAN);
+				if (rowspan == 0 || r + rowspan > sectionEnd) {
+					rowspan = sectionEnd - r;
+				}
+
+				for (int i = r; i < r + rowspan; i++) {
+					HtmlElement[] target = ensureRow(gridRows, i, c + colspan);
+					for (int j = c; j < c + colspan; j++) {
+						if (target[j] == null) {
+							target[j] = cell;
+						}
+					}
+				}
+				positions.put(cell, new int[]{r, c, rowspan, colspan});
+				c += colspan;
+				if (c > width) {
+					width = c;
+				}
+			}
+		}
+
+		this.columnCount = width;
+		this.grid = new HtmlElement[rows.length][];
+		for (int r = 0; r < rows.length; r++) {
+			HtmlElement[] row = r < gridRows.size() ? gridRows.get(r) : null;
+			grid[r] = row == null ? new HtmlElement[width] : Arrays.copyOf(row, width);
+		}
+	}
+
+	/**
+	 * Returns the layout of the given `<table>` element, reusing the layout previously built for the same element
+	 * instance if it is one of the most recently used tables. The cache is shared by all threads, only holds a few
+	 * tables, and doesn't prevent the layouts it holds from being garbage collected when memory is low.
+	 *
+	 * Tables are expected to remain unchanged once their layout is built.
+	 *
+	 * @param table the table whose layout will be returned.
+	 *
+	 * @return the layout of the given table.
+	 *
+	 * @throws IllegalArgumentException if the given element is `null` or not a `<table>`
+	 */
+	public static HtmlTableLayout of(HtmlElement table) {
+		TableKey key = new TableKey(table);
+		HtmlTableLayout layout;
+		synchronized (cache) {
+			SoftReference<HtmlTableLayout> ref = cache.get(key);
+			layout = ref == null ? null : ref.get();
+		}
+		if (layout == null) {
+			layout = new HtmlTableLayout(table);
+			synchronized (cache) {
+				cache.put(key, new SoftReference<HtmlTableLayout>(layout));
+			}
+		}
+		return layout;
+	}
+
+	private static void collectRows(HtmlElement table, List<HtmlElement> rows, List<Integer> sections) {
+		int section = 0;
+		boolean implicitSection = false;
+		for (HtmlElement child : table.children()) {
+			String tag = child.tagName();
+			if ("tr".equalsIgnoreCase(tag)) {
+				if (!implicitSection) {
+					implicitSection = true;
+					section++;
+				}
+				rows.add(child);
+				sections.add(section);
+			} else if ("thead".equalsIgnoreCase(tag) || "tbody".equalsIgnoreCase(tag) || "tfoot".equalsIgnoreCase(tag)) {
+				implicitSection = false;
+				section++;
+				for (HtmlElement row : child.children()) {
+					if ("tr".equalsIgnoreCase(row.tagName())) {
+						rows.add(row);
+						sections.add(section);
+					}
+				}
+			}
+		}
+	}
+
+	private static HtmlElement[] ensureRow(List<HtmlElement[]> gridRows, int rowIndex, int minWidth) {
+		while (gridRows.size() <= rowIndex) {
+			gridRows.add(new HtmlElement[Math.max(minWidth, 4)]);
+		}
+		HtmlElement[] row = gridRows.get(rowIndex);
+		if (row.length < minWidth) {
+			row = Arrays.copyOf(row, Math.max(minWidth, row.length * 2));
+			gridRows.set(rowIndex, row);
+		}
+		return row;
+	}
+
+	private static boolean isCell(HtmlElement element) {
+		String tag = element.tagName();
+		return "td".equalsIgnoreCase(tag) || "th".equalsIgnoreCase(tag);
+	}
+
+	private static int span(HtmlElement cell, String attribute, int min, int max) {
+		String value = cell.attribute(attribute).trim();
+		if (value.isEmpty()) {
+			return 1;
+		}
+		try {
+			int span = Integer.parseInt(value);
+			if (span < min) {
+				return 1;
+			}
+			return span > max ? max : span;
+		} catch (NumberFormatException e) {
+			return 1;
+		}
+	}
+
+	/**
+	 * Returns the `<table>` element represented by this layout.
+	 *
+	 * @return the table element
+	 */
+	public HtmlElement getTable() {
+		return table;
+	}
+
+	/**
+	 * Returns the number of rows in the table, including rows of `<thead>`, `<tbody>` and `<tfoot>` sections.
+	 *
+	 * @return the number of rows in the grid
+	 */
+	public int getRowCount() {
+		return grid.length;
+	}
+
+	/**
+	 * Returns the number of columns of the grid, which corresponds to the widest row of the table once
+	 * all `colspan` and `rowspan` attributes are taken into account.
+	 *
+	 * @return the number of columns in the grid
+	 */
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	/**
+	 * Returns the `<tr>` element at the given row of the grid.
+	 *
+	 * @param rowIndex the index of the row, starting from 0
+	 *
+	 * @return the row element, or `null` if the index is out of bounds.
+	 */
+	public HtmlElement getRow(int rowIndex) {
+		return rowIndex < 0 || rowIndex >= rows.length ? null : rows[rowIndex];
+	}
+
+	/**
+	 * Returns the cell that occupies a given position of the grid. Cells that span multiple rows or columns are
+	 * returned for every position they cover.
+	 *
+	 * @param rowIndex    the index of the row, starting from 0
+	 * @param columnIndex the index of the column, starting from 0
+	 *
+	 * @return the `<td>` or `<th>` at the given position, or `null` if the position is empty or out of bounds.
+	 */
+	public HtmlElement getCellAt(int rowIndex, int columnIndex) {
+		if (rowIndex < 0 || rowIndex >= grid.length || columnIndex < 0 || columnIndex >= columnCount) {
+			return null;
+		}
+		return grid[rowIndex][columnIndex];
+	}
+
+	/**
+	 * Returns the `<td>` or `<th>` of this table that contains the given element, or the element itself if it is
+	 * a cell of this table.
+	 *
+	 * @param element an element inside a cell of this table
+	 *
+	 * @return the cell that contains the element, or `null` if the element is not inside a cell of this table.
+	 */
+	public HtmlElement getCell(HtmlElement element) {
+		while (element != null && element != table) {
+			if (positions.containsKey(element)) {
+				return element;
+			}
+			element = element.parent();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the index of the first row occupied by the cell that contains the given element.
+	 *
+	 * @param element a cell of this table, or an element inside it
+	 *
+	 * @return the row index of the cell, or `-1` if the element is not inside a cell of this table.
+	 */
+	public int getRowIndex(HtmlElement element) {
+		int[] position = position(element);
+		if (position == null) {
+			Integer row = rowIndexes.get(element);
+			return row == null ? -1 : row;
+		}
+		return position[0];
+	}
+
+	/**
+	 * Returns the index of the first column occupied by the cell that contains the given element.
+	 *
+	 * @param element a cell of this table, or an element inside it
+	 *
+	 * @return the column index of the cell, or `-1` if the element is not inside a cell of this table.
+	 */
+	public int getColumnIndex(HtmlElement element) {
+		int[] position = position(element);
+		return position == null ? -1 : position[1];
+	}
+
+	/**
+	 * Returns the number of rows covered by the cell that contains the given element.
+	 *
+	 * @param element a cell of this table, or an element inside it
+	 *
+	 * @return the effective row span of the cell, or `0` if the element is not inside a cell of this table.
+	 */
+	public int getRowSpan(HtmlElement element) {
+		int[] position = position(element);
+		return position == null ? 0 : position[2];
+	}
+
+	/**
+	 * Returns the number of columns covered by the cell that contains the given element.
+	 *
+	 * @param element a cell of this table, or an element inside it
+	 *
+	 * @return the effective column span of the cell, or `0` if the element is not inside a cell of this table.
+	 */
+	public int getColumnSpan(HtmlElement element) {
+		int[] position = position(element);
+		return position == null ? 0 : position[3];
+	}
+
+	/**
+	 * Returns the cell located a number of rows above the cell that contains the given element, in the same column.
+	 *
+	 * @param element        a cell of this table, or an element inside it
+	 * @param numberOfRowsAbove how many rows above the first row of the cell to look at.
+	 *
+	 * @return the cell found at the given distance above, or `null` if there is no such cell.
+	 */
+	public HtmlElement getCellAbove(HtmlElement element, int numberOfRowsAbove) {
+		int[] position = position(element);
+		if (position == null) {
+			return null;
+		}
+		return getCellAt(position[0] - numberOfRowsAbove, position[1]);
+	}
+
+	/**
+	 * Returns the cell at the given row, in the same column of the cell that contains the given element.
+	 *
+	 * @param element  a cell of this table, or an element inside it
+	 * @param rowIndex the index of the row to look at, starting from 0
+	 *
+	 * @return the cell found in the same column at the given row, or `null` if there is no such cell.
+	 */
+	public HtmlElement getCellInColumn(HtmlElement element, int rowIndex) {
+		int[] position = position(element);
+		if (position == null) {
+			return null;
+		}
+		return getCellAt(rowIndex, position[1]);
+	}
+
+	private int[] position(HtmlElement element) {
+		HtmlElement cell = getCell(element);
+		return cell == null ? null : positions.get(cell);
+	}
+
+	private static final class TableKey {
+		private final WeakReference<HtmlElement> table;
+		private final int hash;
+
+		TableKey(HtmlElement table) {
+			this.table = new WeakReference<HtmlElement>(table);
+			this.hash = System.identityHashCode(table);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof TableKey)) {
+				return false;
+			}
+			HtmlElement element = table.get();
+			return element != null && element == ((TableKey) o).table.get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
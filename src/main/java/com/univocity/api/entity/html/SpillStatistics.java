@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Statistics about the data of a {@link HtmlParserResult} written to disk by the {@link HtmlParser}, when the records
+ * accumulated while parsing exceeded the memory budget defined by {@link HtmlParserSettings#setResultMemoryLimit(long)}.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParserResult#getSpillStatistics()
+ * @see HtmlParserResult#close()
+ */
+public interface SpillStatistics {
+
+	/**
+	 * Statistics of a result with no data written to disk.
+	 */
+	SpillStatistics NONE = new SpillStatistics() {
+		@Override
+		public long getSpillCount() {
+			return 0L;
+		}
+
+		@Override
+		public long getSpilledRecordCount() {
+			return 0L;
+		}
+
+		@Override
+		public long getSpilledBytes() {
+			return 0L;
+		}
+
+		@Override
+		public List<File> getSpillFiles() {
+			return Collections.emptyList();
+		}
+	};
+
+	/**
+	 * Returns the number of times the parser exceeded its memory budget and moved records of the result to disk.
+	 *
+	 * @return the number of spills performed.
+	 */
+	long getSpillCount();
+
+	/**
+	 * Returns the total number of records, including records of linked entities and linked fields, moved to disk.
+	 *
+	 * @return the number of records that were written to disk.
+	 */
+	long getSpilledRecordCount();
+
+	/**
+	 * Returns the total number of bytes written to disk.
+	 *
+	 * @return the size of all spill files created so far, in bytes.
+	 */
+	long getSpilledBytes();
+
+	/**
+	 * Returns the spill files that currently exist on disk.
+	 *
+	 * @return the files holding records moved to disk, which will be removed when the result is closed with {@link HtmlParserResult#close()}.
+	 */
+	List<File> getSpillFiles();
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html;
+
+import com.univocity.parsers.common.*;
+
+import java.io.*;
+
+/**
+ * Results stored in a file by a {@link HtmlResultWriter}, obtained via
+ * {@link HtmlParser#openResults(com.univocity.api.io.FileProvider)}. The file is memory-mapped: records, linked field
+ * data and linked entity data are only decoded when accessed, so results much larger than the available heap can be
+ * queried.
+ *
+ * The file remains open and mapped until {@link #close()} is invoked, and must not be modified in the meantime.
+ * As records read from these results are backed by the mapped file, they become invalid once the results are closed:
+ * copy any values required beyond that point (e.g. into beans, or with `toFieldMap()`) before invoking {@link #close()}.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlResultStore
+ * @see HtmlResultWriter
+ */
+public interface StoredHtmlResults extends Results<HtmlParserResult>, Closeable {
+
+	/**
+	 * Unmaps the file with the results and closes it. Any record obtained from these results becomes invalid:
+	 * accessing its values, linked field data or linked entity data after this method is invoked, as well as reading
+	 * further records, results in an {@link IllegalStateException}.
+	 */
+	@Override
+	void close();
+}
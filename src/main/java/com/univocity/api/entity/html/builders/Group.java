@@ -55,6 +55,9 @@ package com.univocity.api.entity.html.builders;
  * [second, ipsum]
  * ```
  *
+ * The boundaries of a group are evaluated only once for each candidate element, regardless of how many fields
+ * are added to it. See {@link com.univocity.api.entity.html.HtmlParserSettings#setSharedPathPrefixesEnabled(boolean)}.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
  */
 public interface Group extends ElementFilter<Group>, ElementFilterStart<Group>, FieldDefinition, PathCopy<PartialPath>, Trigger {
@@ -16,6 +16,10 @@ import com.univocity.api.entity.html.*;
  * match elements from the starting point defined by the `PartialPath`, and how to collect the data from the matched
  * elements, using the methods available from a {@link ContentReader}.
  *
+ * The rules of a `PartialPath` are evaluated only once for each candidate element, regardless of how many fields
+ * are added to it, or to its copies. The elements it matches are then handed over to the rules of each field.
+ * See {@link HtmlParserSettings#setSharedPathPrefixesEnabled(boolean)}.
+ *
  * @see HtmlEntitySettings
  * @see PartialPathStart
  * @see FieldDefinition
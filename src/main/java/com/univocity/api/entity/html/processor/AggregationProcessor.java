@@ -0,0 +1,689 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+
+import java.util.*;
+
+/**
+ * A {@link RowProcessor} that computes aggregates of the rows extracted by the {@link HtmlParser}, grouped by the
+ * values of one or more fields, without keeping the rows in memory.
+ *
+ * For each group, the number of rows is counted. Fields added with {@link #aggregate(String...)} have their numeric
+ * values summed up, with their minimum and maximum identified, while fields added with {@link #countDistinct(String...)}
+ * have their number of distinct values estimated with the HyperLogLog algorithm (with a standard error of about 2%).
+ * Each group uses a fixed amount of memory, regardless of how many rows it aggregates: groups are located using
+ * an open-addressing hash table, and aggregates are stored in primitive arrays.
+ *
+ * Example:
+ *
+ * ```java
+ * AggregationProcessor totals = new AggregationProcessor("category");
+ * totals.aggregate("price");
+ * totals.countDistinct("seller");
+ * entity.setProcessor(totals);
+ *
+ * parser.parse(input);
+ *
+ * for (String[] group : totals.getGroups()) {
+ *     System.out.println(group[0] + ": " + totals.getCount(group) + " items, total " + totals.getSum("price", group)
+ *         + " from " + totals.getDistinctCount("seller", group) + " sellers");
+ * }
+ * ```
+ *
+ * An instance of this class must only process rows from one thread at a time. To aggregate rows produced by
+ * multiple threads, give each thread its own processor (see {@link #newPartialAggregation()}) and combine the results
+ * with {@link #merge(AggregationProcessor)} once they are done.
+ *
+ * Values that can't be parsed as numbers are ignored by numeric aggregates. Integer values are summed up exactly
+ * while the total fits in a `long`, and can be read with {@link #getLongSum(String, String...)}. The values of grouping fields and of
+ * fields counted with {@link #countDistinct(String...)} are compared as given by the parser.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see RowProcessor
+ * @see HtmlEntitySettings
+ */
+public class AggregationProcessor implements RowProcessor, RowReuseSupport {
+
+	private static final int PRECISION = 11;
+	private static final int REGISTERS = 1 << PRECISION;
+	private static final double ALPHA = 0.7213 / (1.0 + 1.079 / REGISTERS);
+
+	private final String[] groupBy;
+	private final List<String> numericFields = new ArrayList<String>();
+	private final List<String> distinctFields = new ArrayList<String>();
+
+	private String[] headers;
+	private int[] groupByIndexes;
+	private int[] numericIndexes;
+	private int[] distinctIndexes;
+
+	private int[] tableHashes;
+	private int[] tableGroups;
+
+	private int groupCount;
+	private String[][] groupKeys;
+	private long[] counts;
+	private long[][] valueCounts;
+	private long[][] integralSums;
+	private double[][] fractionalSums;
+	private boolean[][] inexactSums;
+	private double[][] mins;
+	private double[][] maxs;
+	private byte[][][] registers;
+
+	/**
+	 * Creates an aggregation processor that groups rows by the values of the given fields.
+	 *
+	 * @param groupBy the names of the fields whose values identify each group. If no fields are given, all rows are
+	 *                aggregated into a single group, identified by an empty key.
+	 */
+	public AggregationProcessor(String... groupBy) {
+		this.groupBy = groupBy == null ? new String[0] : groupBy.clone();
+		for (String field : this.groupBy) {
+			if (field == null || field.trim().isEmpty()) {
+				throw new IllegalArgumentException("Names of fields to group by cannot be blank");
+			}
+		}
+		clear();
+	}
+
+	/**
+	 * Adds fields with numeric values to be aggregated. For each group, the sum, minimum, maximum and average of the
+	 * values of these fields will be available.
+	 *
+	 * @param fieldNames the names of the fields to aggregate.
+	 *
+	 * @return this processor, for method chaining.
+	 */
+	public final AggregationProcessor aggregate(String... fieldNames) {
+		addFields(fieldNames, numericFields);
+		return this;
+	}
+
+	/**
+	 * Adds fields whose number of distinct values should be estimated for each group. The estimate has a standard
+	 * error of about 2%, and each field adds 2KB of memory to every group.
+	 *
+	 * @param fieldNames the names of the fields whose distinct values should be counted.
+	 *
+	 * @return this processor, for method chaining.
+	 */
+	public final AggregationProcessor countDistinct(String... fieldNames) {
+		addFields(fieldNames, distinctFields);
+		return this;
+	}
+
+	private void addFields(String[] fieldNames, List<String> target) {
+		if (groupCount > 0) {
+			throw new IllegalStateException("Cannot add fields to aggregate after rows have been processed");
+		}
+		for (String field : fieldNames) {
+			if (field == null || field.trim().isEmpty()) {
+				throw new IllegalArgumentException("Names of fields to aggregate cannot be blank");
+			}
+			if (!target.contains(field)) {
+				target.add(field);
+			}
+		}
+		clear();
+	}
+
+	/**
+	 * Creates a new, empty processor with the same grouping and aggregated fields of this one. Use it to aggregate rows
+	 * in a different thread, then {@link #merge(AggregationProcessor)} the results.
+	 *
+	 * @return a new aggregation processor with the same configuration.
+	 */
+	public AggregationProcessor newPartialAggregation() {
+		AggregationProcessor out = new AggregationProcessor(groupBy);
+		out.aggregate(numericFields.toArray(new String[0]));
+		out.countDistinct(distinctFields.toArray(new String[0]));
+		return out;
+	}
+
+	/**
+	 * Discards all groups and aggregates computed so far.
+	 */
+	public final void clear() {
+		tableHashes = new int[16];
+		tableGroups = new int[16];
+		groupCount = 0;
+		groupKeys = new String[8][];
+		counts = new long[8];
+		valueCounts = new long[numericFields.size()][8];
+		integralSums = new long[numericFields.size()][8];
+		fractionalSums = new double[numericFields.size()][8];
+		inexactSums = new boolean[numericFields.size()][8];
+		mins = new double[numericFields.size()][8];
+		maxs = new double[numericFields.size()][8];
+		registers = new byte[distinctFields.size()][8][];
+	}
+
+	/**
+	 * Indicates this processor can receive a reused row buffer: rows are aggregated and then discarded.
+	 *
+	 * @return `true`, as rows are not kept after being processed.
+	 */
+	@Override
+	public boolean supportsRowReuse() {
+		return true;
+	}
+
+	@Override
+	public void processStarted(HtmlParsingContext context) {
+		//headers might not be known yet: fields are resolved when the first row is processed.
+		headers = null;
+		groupByIndexes = null;
+	}
+
+	@Override
+	public void rowProcessed(String[] row, HtmlParsingContext context) {
+		String[] currentHeaders = context.headers();
+		if (currentHeaders != headers) {
+			if (groupByIndexes == null || !Arrays.equals(currentHeaders, headers)) {
+				resolveIndexes(currentHeaders);
+				if (groupByIndexes == null) {
+					throw new IllegalStateException("Unable to aggregate rows: field names are not available");
+				}
+			}
+			headers = currentHeaders;
+		}
+
+		int group = groupOfRow(row);
+		counts[group]++;
+
+		for (int f = 0; f < numericIndexes.length; f++) {
+			String value = valueAt(row, numericIndexes[f]);
+			if (value == null || value.isEmpty()) {
+				continue;
+			}
+			double number;
+			if (isIntegral(value)) {
+				long integral = Long.parseLong(value);
+				number = integral;
+				addIntegral(f, group, integral);
+			} else {
+				try {
+					number = Double.parseDouble(value);
+				} catch (NumberFormatException e) {
+					continue;
+				}
+				fractionalSums[f][group] += number;
+				inexactSums[f][group] = true;
+			}
+			if (valueCounts[f][group]++ == 0) {
+				mins[f][group] = number;
+				maxs[f][group] = number;
+			} else {
+				if (number < mins[f][group]) {
+					mins[f][group] = number;
+				}
+				if (number > maxs[f][group]) {
+					maxs[f][group] = number;
+				}
+			}
+		}
+
+		for (int f = 0; f < distinctIndexes.length; f++) {
+			String value = valueAt(row, distinctIndexes[f]);
+			if (value != null) {
+				byte[] r = registers[f][group];
+				if (r == null) {
+					r = registers[f][group] = new byte[REGISTERS];
+				}
+				long hash = hash(value);
+				int index = (int) (hash >>> (64 - PRECISION));
+				byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+				if (rank > r[index]) {
+					r[index] = rank;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void processEnded(HtmlParsingContext context) {
+	}
+
+	private static boolean isIntegral(String value) {
+		int length = value.length();
+		int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+		//up to 18 digits always fit in a long
+		if (length == start || length - start > 18) {
+			return false;
+		}
+		for (int i = start; i < length; i++) {
+			char ch = value.charAt(i);
+			if (ch < '0' || ch > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addIntegral(int field, int group, long value) {
+		long sum = integralSums[field][group];
+		long result = sum + value;
+		if (((sum ^ result) & (value ^ result)) < 0) {
+			//overflow: keep the total in the floating point part.
+			fractionalSums[field][group] += (double) sum + (double) value;
+			integralSums[field][group] = 0L;
+			inexactSums[field][group] = true;
+		} else {
+			integralSums[field][group] = result;
+		}
+	}
+
+	private void resolveIndexes(String[] headers) {
+		if (headers == null) {
+			return;
+		}
+		this.headers = headers;
+		this.groupByIndexes = indexesOf(groupBy, headers);
+		this.numericIndexes = indexesOf(numericFields.toArray(new String[0]), headers);
+		this.distinctIndexes = indexesOf(distinctFields.toArray(new String[0]), headers);
+	}
+
+	private static int[] indexesOf(String[] fields, String[] headers) {
+		int[] out = new int[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			out[i] = -1;
+			for (int j = 0; j < headers.length; j++) {
+				if (headers[j] != null && fields[i].trim().equalsIgnoreCase(headers[j].trim())) {
+					out[i] = j;
+					break;
+				}
+			}
+			if (out[i] == -1) {
+				throw new IllegalStateException("Field '" + fields[i] + "' not found. Available fields are: " + Arrays.toString(headers));
+			}
+		}
+		return out;
+	}
+
+	private static String valueAt(String[] row, int index) {
+		return index < row.length ? row[index] : null;
+	}
+
+	private int groupOfRow(String[] row) {
+		int hash = hashOf(row, groupByIndexes);
+		int group = find(row, groupByIndexes, hash);
+		if (group == -1) {
+			String[] values = new String[groupByIndexes.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = valueAt(row, groupByIndexes[i]);
+			}
+			group = addGroup(values, hash);
+		}
+		return group;
+	}
+
+	private static String valueOf(String[] source, int[] indexes, int i) {
+		return indexes == null ? source[i] : valueAt(source, indexes[i]);
+	}
+
+	/**
+	 * Hashes the values that identify a group.
+	 *
+	 * @param source  a row, or the values of the fields used to group rows.
+	 * @param indexes the positions of the fields used to group rows in the given row, or `null` if the source holds
+	 *                just the values of these fields.
+	 */
+	private int hashOf(String[] source, int[] indexes) {
+		int hash = 1;
+		for (int i = 0; i < groupBy.length; i++) {
+			String value = valueOf(source, indexes, i);
+			hash = 31 * hash + (value == null ? 0x7F4A7C15 : value.hashCode());
+		}
+		return mix(hash);
+	}
+
+	private int find(String[] source, int[] indexes, int hash) {
+		int mask = tableGroups.length - 1;
+		int i = hash & mask;
+		while (true) {
+			int group = tableGroups[i] - 1;
+			if (group == -1) {
+				return -1;
+			}
+			if (tableHashes[i] == hash && hasKey(group, source, indexes)) {
+				return group;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private boolean hasKey(int group, String[] source, int[] indexes) {
+		String[] key = groupKeys[group];
+		for (int i = 0; i < key.length; i++) {
+			String value = valueOf(source, indexes, i);
+			if (key[i] == null ? value != null : !key[i].equals(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int addGroup(String[] values, int hash) {
+		int group = groupCount++;
+		if (group == counts.length) {
+			int capacity = counts.length << 1;
+			groupKeys = Arrays.copyOf(groupKeys, capacity);
+			counts = Arrays.copyOf(counts, capacity);
+			for (int f = 0; f < valueCounts.length; f++) {
+				valueCounts[f] = Arrays.copyOf(valueCounts[f], capacity);
+				integralSums[f] = Arrays.copyOf(integralSums[f], capacity);
+				fractionalSums[f] = Arrays.copyOf(fractionalSums[f], capacity);
+				inexactSums[f] = Arrays.copyOf(inexactSums[f], capacity);
+				mins[f] = Arrays.copyOf(mins[f], capacity);
+				maxs[f] = Arrays.copyOf(maxs[f], capacity);
+			}
+			for (int f = 0; f < registers.length; f++) {
+				registers[f] = Arrays.copyOf(registers[f], capacity);
+			}
+		}
+		groupKeys[group] = values;
+
+		if (groupCount * 2 > tableGroups.length) {
+			int[] oldHashes = tableHashes;
+			int[] oldGroups = tableGroups;
+			tableHashes = new int[oldGroups.length << 1];
+			tableGroups = new int[oldGroups.length << 1];
+			for (int i = 0; i < oldGroups.length; i++) {
+				if (oldGroups[i] != 0) {
+					put(oldHashes[i], oldGroups[i] - 1);
+				}
+			}
+		}
+		put(hash, group);
+		return group;
+	}
+
+	private void put(int hash, int group) {
+		int mask = tableGroups.length - 1;
+		int i = hash & mask;
+		while (tableGroups[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		tableHashes[i] = hash;
+		tableGroups[i] = group + 1;
+	}
+
+	private static int mix(int hash) {
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	private static long hash(String value) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Adds the groups and aggregates computed by another processor, with the same configuration, to this one.
+	 * The other processor is not modified. Must not be invoked while either processor is processing rows.
+	 *
+	 * @param other the processor whose results will be merged into this one.
+	 */
+	public void merge(AggregationProcessor other) {
+		if (other == null || other == this) {
+			return;
+		}
+		if (!Arrays.equals(groupBy, other.groupBy) || !numericFields.equals(other.numericFields) || !distinctFields.equals(other.distinctFields)) {
+			throw new IllegalArgumentException("Cannot merge aggregations of different fields");
+		}
+		for (int o = 0; o < other.groupCount; o++) {
+			String[] values = other.groupKeys[o];
+			int hash = hashOf(values, null);
+			int group = find(values, null, hash);
+			if (group == -1) {
+				group = addGroup(values.clone(), hash);
+			}
+			counts[group] += other.counts[o];
+
+			for (int f = 0; f < valueCounts.length; f++) {
+				long otherCount = other.valueCounts[f][o];
+				if (otherCount == 0) {
+					continue;
+				}
+				if (valueCounts[f][group] == 0) {
+					mins[f][group] = other.mins[f][o];
+					maxs[f][group] = other.maxs[f][o];
+				} else {
+					mins[f][group] = Math.min(mins[f][group], other.mins[f][o]);
+					maxs[f][group] = Math.max(maxs[f][group], other.maxs[f][o]);
+				}
+				valueCounts[f][group] += otherCount;
+				addIntegral(f, group, other.integralSums[f][o]);
+				fractionalSums[f][group] += other.fractionalSums[f][o];
+				inexactSums[f][group] |= other.inexactSums[f][o];
+			}
+
+			for (int f = 0; f < registers.length; f++) {
+				byte[] otherRegisters = other.registers[f][o];
+				if (otherRegisters == null) {
+					continue;
+				}
+				byte[] r = registers[f][group];
+				if (r == null) {
+					registers[f][group] = otherRegisters.clone();
+				} else {
+					for (int i = 0; i < r.length; i++) {
+						if (otherRegisters[i] > r[i]) {
+							r[i] = otherRegisters[i];
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the names of the fields used to group rows.
+	 *
+	 * @return the fields whose values identify each group.
+	 */
+	public final String[] getGroupByFields() {
+		return groupBy.clone();
+	}
+
+	/**
+	 * Returns the number of groups identified so far.
+	 *
+	 * @return the number of distinct combinations of values of the fields used to group rows.
+	 */
+	public final int getGroupCount() {
+		return groupCount;
+	}
+
+	/**
+	 * Returns the values that identify each group, in the order the groups were first found.
+	 *
+	 * @return a list with the values of the fields used to group rows, for each group.
+	 */
+	public final List<String[]> getGroups() {
+		List<String[]> out = new ArrayList<String[]>(groupCount);
+		for (int i = 0; i < groupCount; i++) {
+			out.add(groupKeys[i].clone());
+		}
+		return out;
+	}
+
+	/**
+	 * Returns the number of rows of a group.
+	 *
+	 * @param groupKey the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the number of rows aggregated in the given group, or `0` if the group doesn't exist.
+	 */
+	public final long getCount(String... groupKey) {
+		int group = groupOf(groupKey);
+		return group == -1 ? 0L : counts[group];
+	}
+
+	/**
+	 * Returns the number of numeric values of a field in a group.
+	 *
+	 * @param fieldName the name of a field added with {@link #aggregate(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the number of values of the given field that could be aggregated in the given group.
+	 */
+	public final long getValueCount(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, numericFields);
+		int group = groupOf(groupKey);
+		return group == -1 ? 0L : valueCounts[f][group];
+	}
+
+	/**
+	 * Returns the sum of the values of a field in a group.
+	 *
+	 * @param fieldName the name of a field added with {@link #aggregate(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the sum of values of the given field in the given group, or `0` if there are no values.
+	 */
+	public final double getSum(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, numericFields);
+		int group = groupOf(groupKey);
+		return group == -1 ? 0.0 : sumOf(f, group);
+	}
+
+	/**
+	 * Returns the exact sum of the values of a field in a group, when all of them are integers. Integers are summed
+	 * up without loss of precision, as long as the total fits in a `long`.
+	 *
+	 * @param fieldName the name of a field added with {@link #aggregate(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the sum of values of the given field in the given group, or `0` if there are no values.
+	 *
+	 * @throws ArithmeticException if the group has values with decimals, or if their sum overflows a `long`. Use
+	 *                             {@link #getSum(String, String...)} in this case.
+	 */
+	public final long getLongSum(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, numericFields);
+		int group = groupOf(groupKey);
+		if (group == -1) {
+			return 0L;
+		}
+		if (inexactSums[f][group]) {
+			throw new ArithmeticException("Sum of field '" + fieldName + "' in group " + Arrays.toString(groupKey) + " can't be represented as a long");
+		}
+		return integralSums[f][group];
+	}
+
+	private double sumOf(int field, int group) {
+		return integralSums[field][group] + fractionalSums[field][group];
+	}
+
+	/**
+	 * Returns the smallest value of a field in a group.
+	 *
+	 * @param fieldName the name of a field added with {@link #aggregate(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the minimum value of the given field in the given group, or {@link Double#NaN} if there are no values.
+	 */
+	public final double getMin(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, numericFields);
+		int group = groupOf(groupKey);
+		return group == -1 || valueCounts[f][group] == 0 ? Double.NaN : mins[f][group];
+	}
+
+	/**
+	 * Returns the largest value of a field in a group.
+	 *
+	 * @param fieldName the name of a field added with {@link #aggregate(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the maximum value of the given field in the given group, or {@link Double#NaN} if there are no values.
+	 */
+	public final double getMax(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, numericFields);
+		int group = groupOf(groupKey);
+		return group == -1 || valueCounts[f][group] == 0 ? Double.NaN : maxs[f][group];
+	}
+
+	/**
+	 * Returns the average of the values of a field in a group.
+	 *
+	 * @param fieldName the name of a field added with {@link #aggregate(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the average value of the given field in the given group, or {@link Double#NaN} if there are no values.
+	 */
+	public final double getAverage(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, numericFields);
+		int group = groupOf(groupKey);
+		return group == -1 || valueCounts[f][group] == 0 ? Double.NaN : sumOf(f, group) / valueCounts[f][group];
+	}
+
+	/**
+	 * Returns an estimate of the number of distinct values of a field in a group.
+	 *
+	 * @param fieldName the name of a field added with {@link #countDistinct(String...)}
+	 * @param groupKey  the values of the fields used to group rows that identify the group.
+	 *
+	 * @return the approximate number of distinct values of the given field in the given group.
+	 */
+	public final long getDistinctCount(String fieldName, String... groupKey) {
+		int f = indexOf(fieldName, distinctFields);
+		int group = groupOf(groupKey);
+		if (group == -1 || registers[f][group] == null) {
+			return 0L;
+		}
+		byte[] r = registers[f][group];
+		double sum = 0.0;
+		int zeros = 0;
+		for (int i = 0; i < r.length; i++) {
+			sum += 1.0 / (1L << r[i]);
+			if (r[i] == 0) {
+				zeros++;
+			}
+		}
+		double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+		if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+			estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	private int groupOf(String[] groupKey) {
+		if (groupKey == null) {
+			groupKey = new String[1];
+		}
+		if (groupKey.length != groupBy.length) {
+			throw new IllegalArgumentException("Expected " + groupBy.length + " values to identify a group of fields " + Arrays.toString(groupBy) + ". Got " + Arrays.toString(groupKey));
+		}
+		return find(groupKey, null, hashOf(groupKey, null));
+	}
+
+	private static int indexOf(String fieldName, List<String> fields) {
+		int index = fields.indexOf(fieldName);
+		if (index == -1) {
+			for (int i = 0; i < fields.size(); i++) {
+				if (fields.get(i).trim().equalsIgnoreCase(fieldName == null ? null : fieldName.trim())) {
+					return i;
+				}
+			}
+			throw new IllegalArgumentException("Field '" + fieldName + "' is not aggregated. Aggregated fields are: " + fields);
+		}
+		return index;
+	}
+}
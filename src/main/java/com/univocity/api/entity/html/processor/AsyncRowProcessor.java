@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * A {@link RowProcessor} that hands the rows produced by the {@link HtmlParser} over to another {@link RowProcessor},
+ * which runs in a dedicated thread. This prevents a slow processor (e.g. one that inserts rows into a database) from
+ * slowing down the parser.
+ *
+ * Rows are transferred through a bounded buffer. When the buffer is full, the parser either waits until there is
+ * space available ({@link OverflowStrategy#BLOCK}, the default) or discards the row
+ * ({@link OverflowStrategy#DROP}). Waiting threads are suspended until signalled by the other side, without polling.
+ *
+ * The wrapped processor receives the calls to {@link #processStarted(HtmlParsingContext)},
+ * {@link #rowProcessed(String[], HtmlParsingContext)} and {@link #processEnded(HtmlParsingContext)} in the same order
+ * they were made by the parser. The context given to it with each row is a copy of the state of the original context
+ * when the row was produced, so it can be safely read from the processing thread (records can't be created from it
+ * with {@link HtmlParsingContext#toRecord(String[])}, use {@link HtmlParsingContext#recordMetaData()} instead). Rows are held in the buffer
+ * until they are processed, so this processor never receives reused row buffers
+ * (see {@link HtmlParserSettings#setRowReuseEnabled(boolean)}) and hands each row over without copying it. The parser only finishes after
+ * all rows have been handled, and any error thrown by the wrapped processor is rethrown in the parsing thread.
+ * The wrapped processor always receives the call to {@link #processEnded(HtmlParsingContext)}, even if it failed
+ * while processing a row, so this processor can be used again in the next parsing process.
+ *
+ * An instance of this class hands rows over to a single processing thread, and must only be used by one parsing
+ * process at a time.
+ *
+ * Example:
+ *
+ * ```java
+ * entity.setProcessor(new AsyncRowProcessor(new MyDatabaseRowProcessor(), 10000));
+ * ```
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see RowProcessor
+ * @see HtmlEntitySettings
+ */
+public class AsyncRowProcessor implements RowProcessor, FieldConsumer {
+
+	/**
+	 * What to do with a new row when the buffer of an {@link AsyncRowProcessor} is full.
+	 */
+	public enum OverflowStrategy {
+		/**
+		 * Waits until the processing thread frees up space in the buffer.
+		 */
+		BLOCK,
+		/**
+		 * Discards the row. The number of rows discarded is given by {@link AsyncRowProcessor#getDroppedRowCount()}
+		 */
+		DROP
+	}
+
+	private static final Object END = new Object();
+
+	private final RowProcessor processor;
+	private final RowRingBuffer buffer;
+	private final OverflowStrategy overflowStrategy;
+	private final AtomicLong droppedRows = new AtomicLong();
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition rowsAvailable = lock.newCondition();
+	private final Condition spaceAvailable = lock.newCondition();
+
+	private volatile Thread consumer;
+	private volatile boolean consumerWaiting;
+	private volatile boolean consumerStopped;
+	private volatile int producersWaiting;
+	private volatile Throwable error;
+
+	/**
+	 * Creates an asynchronous processor with a buffer of 1024 rows, which blocks the parser when the buffer is full.
+	 *
+	 * @param processor the processor to run in a separate thread.
+	 */
+	public AsyncRowProcessor(RowProcessor processor) {
+		this(processor, 1024);
+	}
+
+	/**
+	 * Creates an asynchronous processor which blocks the parser when the buffer is full.
+	 *
+	 * @param processor the processor to run in a separate thread.
+	 * @param capacity  the number of rows that can be held in the buffer. Rounded up to the next power of two, up to 2^30.
+	 */
+	public AsyncRowProcessor(RowProcessor processor, int capacity) {
+		this(processor, capacity, OverflowStrategy.BLOCK);
+	}
+
+	/**
+	 * Creates an asynchronous processor.
+	 *
+	 * @param processor        the processor to run in a separate thread.
+	 * @param capacity         the number of rows that can be held in the buffer. Rounded up to the next power of two, up to 2^30.
+	 * @param overflowStrategy what to do with new rows when the buffer is full.
+	 */
+	public AsyncRowProcessor(RowProcessor processor, int capacity, OverflowStrategy overflowStrategy) {
+		if (processor == null) {
+			throw new IllegalArgumentException("Row processor cannot be null");
+		}
+		if (capacity < 1 || capacity > RowRingBuffer.MAX_CAPACITY) {
+			throw new IllegalArgumentException("Buffer capacity must be between 1 and " + RowRingBuffer.MAX_CAPACITY + ". Got " + capacity);
+		}
+		this.processor = processor;
+		this.buffer = new RowRingBuffer(capacity);
+		this.overflowStrategy = overflowStrategy == null ? OverflowStrategy.BLOCK : overflowStrategy;
+	}
+
+	/**
+	 * Returns the processor that runs in a separate thread.
+	 *
+	 * @return the wrapped processor.
+	 */
+	public final RowProcessor getProcessor() {
+		return processor;
+	}
+
+	/**
+	 * Returns the number of rows that can be held in the buffer.
+	 *
+	 * @return the buffer capacity
+	 */
+	public final int getCapacity() {
+		return buffer.capacity();
+	}
+
+	/**
+	 * Returns the strategy used when a new row is produced and the buffer is full.
+	 *
+	 * @return the overflow strategy
+	 */
+	public final OverflowStrategy getOverflowStrategy() {
+		return overflowStrategy;
+	}
+
+	/**
+	 * Returns the number of rows discarded because the buffer was full. Only applicable when using
+	 * {@link OverflowStrategy#DROP}.
+	 *
+	 * @return the number of rows discarded so far.
+	 */
+	public final long getDroppedRowCount() {
+		return droppedRows.get();
+	}
+
+	/**
+	 * Returns the fields consumed by the wrapped processor, if it implements {@link FieldConsumer}.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return the fields used by the wrapped processor, or `null` if every field must be evaluated.
+	 */
+	@Override
+	public Set<String> getConsumedFields(Set<String> availableFields) {
+		return ConsumedFields.of(processor, availableFields);
+	}
+
+	@Override
+	public void processStarted(HtmlParsingContext context) {
+		Thread thread;
+		synchronized (this) {
+			if (consumer == null) {
+				error = null;
+				consumerStopped = false;
+				thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						consume();
+					}
+				}, "async-row-processor-" + context.entityName());
+				thread.setDaemon(true);
+				consumer = thread;
+				thread.start();
+			} else {
+				thread = consumer;
+			}
+		}
+		enqueue(thread, new Event(null, new HtmlContextSnapshot(context)), true);
+	}
+
+	@Override
+	public void rowProcessed(String[] row, HtmlParsingContext context) {
+		rethrowError();
+		Thread thread = consumer;
+		if (thread == null) {
+			throw new IllegalStateException("Asynchronous row processor not started");
+		}
+		enqueue(thread, new Event(row, new HtmlContextSnapshot(context)), overflowStrategy == OverflowStrategy.BLOCK);
+	}
+
+	@Override
+	public void processEnded(HtmlParsingContext context) {
+		Thread thread = consumer;
+		if (thread == null) {
+			processor.processEnded(context);
+			return;
+		}
+		Throwable e;
+		try {
+			enqueue(thread, new Event(END, new HtmlContextSnapshot(context)), true);
+			boolean interrupted = false;
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				} catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		} finally {
+			synchronized (this) {
+				consumer = null;
+				e = error;
+				error = null;
+			}
+		}
+		rethrow(e);
+	}
+
+	private void enqueue(Thread thread, Event event, boolean block) {
+		if (!buffer.offer(event)) {
+			if (!block) {
+				droppedRows.incrementAndGet();
+				return;
+			}
+			lock.lock();
+			try {
+				producersWaiting++;
+				try {
+					while (!buffer.offer(event)) {
+						if (consumerStopped || !thread.isAlive()) {
+							rethrowError();
+							throw new IllegalStateException("Asynchronous row processor stopped unexpectedly");
+						}
+						spaceAvailable.awaitUninterruptibly();
+					}
+				} finally {
+					producersWaiting--;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		if (consumerWaiting) {
+			signal(rowsAvailable);
+		}
+	}
+
+	private void signal(Condition condition) {
+		lock.lock();
+		try {
+			condition.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Event take() {
+		Object next = buffer.poll();
+		if (next == null) {
+			lock.lock();
+			try {
+				consumerWaiting = true;
+				while ((next = buffer.poll()) == null) {
+					rowsAvailable.awaitUninterruptibly();
+				}
+			} finally {
+				consumerWaiting = false;
+				lock.unlock();
+			}
+		}
+		if (producersWaiting > 0) {
+			signal(spaceAvailable);
+		}
+		return (Event) next;
+	}
+
+	private void consume() {
+		try {
+			consumeEvents();
+		} finally {
+			consumerStopped = true;
+			signal(spaceAvailable);
+		}
+	}
+
+	private void consumeEvents() {
+		boolean failed = false;
+		while (true) {
+			Event event = take();
+			if (failed && event.row != END) {
+				continue;
+			}
+			try {
+				if (event.row == null) {
+					processor.processStarted(event.context);
+				} else if (event.row == END) {
+					processor.processEnded(event.context);
+					return;
+				} else {
+					processor.rowProcessed((String[]) event.row, event.context);
+				}
+			} catch (Throwable e) {
+				if (error == null) {
+					error = e;
+				}
+				if (event.row == END) {
+					return;
+				}
+				failed = true;
+				event.context.stop();
+			}
+		}
+	}
+
+	private void rethrowError() {
+		rethrow(error);
+	}
+
+	private static void rethrow(Throwable e) {
+		if (e != null) {
+			if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
+			}
+			if (e instanceof Error) {
+				throw (Error) e;
+			}
+			throw new IllegalStateException("Error processing rows asynchronously", e);
+		}
+	}
+
+	private static final class Event {
+		final Object row;
+		final HtmlParsingContext context;
+
+		Event(Object row, HtmlParsingContext context) {
+			this.row = row;
+			this.context = context;
+		}
+	}
+}
@@ -26,7 +26,9 @@ import com.univocity.parsers.common.processor.core.*;
  * @see AbstractBatchedColumnProcessor
  * @see HtmlEntitySettings
  */
-public abstract class BatchedColumnProcessor extends AbstractBatchedColumnProcessor<HtmlParsingContext> implements RowProcessor {
+public abstract class BatchedColumnProcessor extends AbstractBatchedColumnProcessor<HtmlParsingContext> implements RowProcessor, RowReuseSupport {
+
+	private boolean rowReuseSupported;
 
 	/**
 	 * Constructs a batched column processor configured to invoke the {@link #batchesProcessed} method after a given number of rows has been processed.
@@ -37,5 +39,29 @@ public abstract class BatchedColumnProcessor extends AbstractBatchedColumnProces
 		super(rowsPerBatch);
 	}
 
+	/**
+	 * Indicates whether this processor can receive a reused row buffer. The values of each row are added to their
+	 * columns, and this class doesn't keep the row itself, but subclasses might. Row reuse must be enabled explicitly
+	 * with {@link #setRowReuseSupported(boolean)}.
+	 *
+	 * @return `true` if rows are not kept after being processed and can be reused by the parser.
+	 */
+	@Override
+	public boolean supportsRowReuse() {
+		return rowReuseSupported;
+	}
 
+	/**
+	 * Defines whether this processor can receive a reused row buffer, i.e. the same `String[]` with different values
+	 * for every record (see {@link HtmlParserSettings#setRowReuseEnabled(boolean)}). Only enable this if no code in
+	 * this processor, including subclasses that override {@link #rowProcessed(String[], HtmlParsingContext)}, keeps
+	 * references to the rows received.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param rowReuseSupported flag indicating whether rows given to this processor can be reused by the parser.
+	 */
+	public final void setRowReuseSupported(boolean rowReuseSupported) {
+		this.rowReuseSupported = rowReuseSupported;
+	}
 }
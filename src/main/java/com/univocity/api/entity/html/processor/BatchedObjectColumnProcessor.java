@@ -22,6 +22,8 @@ import com.univocity.parsers.conversions.*;
  *  After {@link #batchProcessed(int)} is invoked, all values will be discarded and the next batch of column values will be accumulated.
  * This process will repeat until there's no more rows in the input.
  *
+ * Numeric values can also be stored in primitive arrays, see {@link #setPrimitiveColumnsEnabled(boolean)}.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  * @see HtmlParser
  * @see RowProcessor
@@ -31,6 +33,8 @@ import com.univocity.parsers.conversions.*;
  */
 public abstract class BatchedObjectColumnProcessor extends AbstractBatchedObjectColumnProcessor<HtmlParsingContext> implements RowProcessor {
 
+	private final int rowsPerBatch;
+	private TypedColumns typedColumns;
 
 	/**
 	 * Constructs a batched column processor configured to invoke the {@link #batchesProcessed} method after a given number of rows has been processed.
@@ -39,6 +43,66 @@ public abstract class BatchedObjectColumnProcessor extends AbstractBatchedObject
 	 */
 	public BatchedObjectColumnProcessor(int rowsPerBatch) {
 		super(rowsPerBatch);
+		this.rowsPerBatch = rowsPerBatch;
+	}
+
+	@Override
+	public void processStarted(HtmlParsingContext context) {
+		super.processStarted(context);
+		if (typedColumns != null) {
+			typedColumns.reset();
+		}
+	}
+
+	@Override
+	public void rowProcessed(Object[] row, HtmlParsingContext context) {
+		super.rowProcessed(row, context);
+		if (typedColumns != null) {
+			typedColumns.attach(getColumnValuesAsList(), context.headers());
+		}
+	}
+
+	/**
+	 * Indicates whether the values of numeric columns are stored in primitive arrays instead of lists of boxed
+	 * numbers. See {@link #setPrimitiveColumnsEnabled(boolean)}.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if numeric values are stored in primitive arrays.
+	 */
+	public final boolean isPrimitiveColumnsEnabled() {
+		return typedColumns != null;
 	}
 
+	/**
+	 * Defines whether the values of numeric columns should be stored in primitive arrays instead of lists of boxed
+	 * numbers. When enabled, the lists returned by methods such as {@link #getColumnValuesAsList()} are backed by
+	 * {@link TypedColumns}, which keep each column of {@link Integer}s, {@link Long}s or {@link Double}s (or
+	 * {@link Short}s, {@link Byte}s and {@link Float}s) in an `int[]`, `long[]` or `double[]`. Values are only boxed
+	 * when read from the lists, and can be read without boxing from {@link #getPrimitiveColumns()}.
+	 *
+	 * Must be set before parsing. Defaults to `false`.
+	 *
+	 * @param primitiveColumnsEnabled flag indicating whether numeric values should be stored in primitive arrays.
+	 */
+	public final void setPrimitiveColumnsEnabled(boolean primitiveColumnsEnabled) {
+		if (!primitiveColumnsEnabled) {
+			typedColumns = null;
+		} else if (typedColumns == null) {
+			typedColumns = new TypedColumns(rowsPerBatch);
+		}
+	}
+
+	/**
+	 * Returns the primitive arrays with the values of numeric columns of the current batch. Only available when
+	 * {@link #isPrimitiveColumnsEnabled()} is `true`.
+	 *
+	 * @return the columns of values collected so far.
+	 */
+	public final TypedColumns getPrimitiveColumns() {
+		if (typedColumns == null) {
+			throw new IllegalStateException("Primitive columns are not enabled. Use setPrimitiveColumnsEnabled(true) before parsing.");
+		}
+		return typedColumns;
+	}
 }
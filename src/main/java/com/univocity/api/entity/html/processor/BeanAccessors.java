@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.parsers.annotations.*;
+import com.univocity.parsers.common.*;
+import com.univocity.parsers.conversions.*;
+
+import java.lang.annotation.*;
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.math.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Creates and populates instances of simple annotated java beans without reflection. Setters are invoked through
+ * functions generated with {@link LambdaMetafactory}, or through {@link MethodHandle}s when the setter or
+ * the annotated attribute is not public. Used by {@link BeanProcessor} and {@link BeanListProcessor} when
+ * generated accessors are enabled.
+ *
+ * Only beans whose attributes and setters are mapped by name with a plain {@link Parsed} annotation, to
+ * {@link String}s, numeric primitives, their wrappers, {@link BigDecimal} or {@link BigInteger}, are supported.
+ * Values are converted with the same default {@link Conversion}s used by the reflective implementation.
+ * The mapping of each header layout to the setters of a bean is resolved once, and the most recently used layouts
+ * are cached by the processor that owns this object. Values are converted before the bean is created, so a row with
+ * a value that can't be converted can be processed by the reflective implementation without side effects.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class BeanAccessors {
+
+	private static final int MAX_LAYOUTS = 16;
+	private static final Map<Class<?>, Supplier<Conversion<String, ?>>> SUPPORTED_TYPES = new HashMap<Class<?>, Supplier<Conversion<String, ?>>>();
+
+	static {
+		SUPPORTED_TYPES.put(String.class, null);
+		supportType(int.class, Integer.class, IntegerConversion::new);
+		supportType(long.class, Long.class, LongConversion::new);
+		supportType(double.class, Double.class, DoubleConversion::new);
+		supportType(float.class, Float.class, FloatConversion::new);
+		supportType(short.class, Short.class, ShortConversion::new);
+		supportType(byte.class, Byte.class, ByteConversion::new);
+		SUPPORTED_TYPES.put(BigDecimal.class, BigDecimalConversion::new);
+		SUPPORTED_TYPES.put(BigInteger.class, BigIntegerConversion::new);
+	}
+
+	private static void supportType(Class<?> primitive, Class<?> wrapper, Supplier<Conversion<String, ?>> conversion) {
+		SUPPORTED_TYPES.put(primitive, conversion);
+		SUPPORTED_TYPES.put(wrapper, conversion);
+	}
+
+	private final Supplier<Object> constructor;
+	private final Map<String, Setter> setters;
+	private final Map<List<String>, Setter[]> layouts = new LinkedHashMap<List<String>, Setter[]>(MAX_LAYOUTS, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<String>, Setter[]> eldest) {
+			return size() > MAX_LAYOUTS;
+		}
+	};
+	private volatile Layout lastLayout;
+	private Object[] values = new Object[0];
+
+	private BeanAccessors(Supplier<Object> constructor, Map<String, Setter> setters) {
+		this.constructor = constructor;
+		this.setters = setters;
+	}
+
+	/**
+	 * Returns the accessors of a given bean type. Instances are not shared among processors, so that bean classes
+	 * (and their class loaders) are not retained after the processors that use them are discarded.
+	 *
+	 * @param beanType the annotated class
+	 *
+	 * @return the accessors to create and populate instances of the given class, or `null` if the class uses
+	 * annotations or types not supported.
+	 */
+	static BeanAccessors of(Class<?> beanType) {
+		try {
+			return create(beanType);
+		} catch (Throwable e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the setters to invoke for each value of a row with the given headers.
+	 *
+	 * @param headers the headers of the rows to process.
+	 *
+	 * @return an array with the setter for the value at each position of a row, with `null` for values not mapped
+	 * to the bean.
+	 */
+	private Setter[] layoutOf(String[] headers) {
+		List<String> key = Arrays.asList(headers.clone());
+		synchronized (layouts) {
+			Setter[] layout = layouts.get(key);
+			if (layout == null) {
+				layout = new Setter[headers.length];
+				for (int i = 0; i < headers.length; i++) {
+					if (headers[i] != null) {
+						layout[i] = setters.get(headers[i].trim().toLowerCase());
+					}
+				}
+				layouts.put(key, layout);
+			}
+			return layout;
+		}
+	}
+
+	/**
+	 * Returns the header of each value of the rows produced with the given field selection.
+	 *
+	 * @param headers   the headers of the entity.
+	 * @param indexes   the positions of the selected headers, or `null` if all fields are extracted.
+	 * @param reordered whether the values of rows follow the selection order instead of the order of the headers
+	 *                  (see {@link Context#columnsReordered()}).
+	 *
+	 * @return the header of each position of a row, with `null` for positions of fields that are not extracted.
+	 */
+	private static String[] rowHeaders(String[] headers, int[] indexes, boolean reordered) {
+		if (indexes == null) {
+			return headers;
+		}
+		String[] out = new String[reordered ? indexes.length : headers.length];
+		for (int i = 0; i < indexes.length; i++) {
+			int index = indexes[i];
+			if (index >= 0 && index < headers.length) {
+				out[reordered ? i : index] = headers[index];
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Creates a new bean and populates it with the values of a row. All values are converted before the bean is
+	 * created and its setters are invoked.
+	 *
+	 * @param context the context of the parsing process, used to identify the header of each value of the row.
+	 * @param row     the row with values to assign to the bean.
+	 *
+	 * @return the new bean instance, or `null` if the headers are unknown, if any value can't be converted to the type
+	 * of its attribute, or if a `null` would be assigned to a primitive. Such rows are expected to be processed by the
+	 * reflective implementation, which handles errors as configured in the processor.
+	 *
+	 * @throws RuntimeException if the constructor or a setter of the bean fails. The row must not be processed again,
+	 *                          as the bean code might have side effects.
+	 */
+	Object createBean(Context context, String[] row) {
+		String[] headers = context.headers();
+		if (headers == null) {
+			return null;
+		}
+		int[] indexes = context.extractedFieldIndexes();
+		boolean reordered = context.columnsReordered();
+		Layout layout = lastLayout;
+		if (layout == null || layout.headers != headers || layout.indexes != indexes || layout.reordered != reordered) {
+			layout = new Layout(headers, indexes, reordered, layoutOf(rowHeaders(headers, indexes, reordered)));
+			lastLayout = layout;
+		}
+		Setter[] setters = layout.setters;
+
+		int length = Math.min(setters.length, row.length);
+		Object[] values = this.values;
+		if (values.length < length) {
+			values = new Object[length];
+			this.values = values;
+		}
+		try {
+			for (int i = 0; i < length; i++) {
+				Setter setter = setters[i];
+				if (setter != null) {
+					try {
+						values[i] = setter.convert(row[i]);
+					} catch (RuntimeException e) {
+						return null;
+					}
+				}
+			}
+
+			Object bean = constructor.get();
+			for (int i = 0; i < length; i++) {
+				Setter setter = setters[i];
+				if (setter != null) {
+					setter.assign(bean, values[i], row[i]);
+				}
+			}
+			return bean;
+		} finally {
+			Arrays.fill(values, 0, length, null);
+		}
+	}
+
+	private static BeanAccessors create(Class<?> beanType) throws Throwable {
+		if (beanType.isInterface() || Modifier.isAbstract(beanType.getModifiers()) || !supportedAnnotations(beanType.getAnnotations(), false)) {
+			return null;
+		}
+
+		Map<String, Setter> setters = new HashMap<String, Setter>();
+		for (Class<?> c = beanType; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Method method : c.getDeclaredMethods()) {
+				Parsed parsed = method.getAnnotation(Parsed.class);
+				if (!supportedAnnotations(method.getAnnotations(), true)) {
+					return null;
+				}
+				if (parsed == null) {
+					continue;
+				}
+				String name = method.getName();
+				if (method.getParameterTypes().length != 1 || !name.startsWith("set") || name.length() <= 3 || Modifier.isStatic(method.getModifiers())) {
+					return null;
+				}
+				Class<?> type = method.getParameterTypes()[0];
+				String defaultName = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+				if (!register(parsed, defaultName, type, setterOf(beanType, method, type), setters)) {
+					return null;
+				}
+			}
+			for (Field field : c.getDeclaredFields()) {
+				Parsed parsed = field.getAnnotation(Parsed.class);
+				if (!supportedAnnotations(field.getAnnotations(), true)) {
+					return null;
+				}
+				if (parsed == null) {
+					continue;
+				}
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+					return null;
+				}
+				Class<?> type = field.getType();
+				if (!register(parsed, field.getName(), type, setterOf(beanType, field, type), setters)) {
+					return null;
+				}
+			}
+		}
+		if (setters.isEmpty()) {
+			return null;
+		}
+		return new BeanAccessors(constructorOf(beanType), setters);
+	}
+
+	private static boolean supportedAnnotations(Annotation[] annotations, boolean member) {
+		for (Annotation annotation : annotations) {
+			Class<? extends Annotation> type = annotation.annotationType();
+			if (type == Parsed.class) {
+				continue;
+			}
+			if (type.getPackage() == Parsed.class.getPackage() && (member || type != Headers.class)) {
+				return false;
+			}
+			for (Annotation meta : type.getAnnotations()) {
+				if (meta.annotationType().getPackage() == Parsed.class.getPackage()) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean register(Parsed parsed, String defaultName, Class<?> type, Setter setter, Map<String, Setter> setters) {
+		if (!SUPPORTED_TYPES.containsKey(type) || setter == null) {
+			return false;
+		}
+		Object index = BeanFields.attribute(parsed, "index");
+		Object applyDefaultConversion = BeanFields.attribute(parsed, "applyDefaultConversion");
+		Object defaultNullRead = BeanFields.attribute(parsed, "defaultNullRead");
+		if ((index instanceof Integer && (Integer) index >= 0) || Boolean.FALSE.equals(applyDefaultConversion)
+				|| (defaultNullRead != null && !"null".equals(defaultNullRead))) {
+			return false;
+		}
+
+		Object declared = BeanFields.attribute(parsed, "field");
+		String[] names = declared instanceof String[] ? (String[]) declared : new String[]{(String) declared};
+		boolean named = false;
+		for (String name : names) {
+			if (name != null && !name.trim().isEmpty()) {
+				named = true;
+				if (!putSetter(name, setter, setters)) {
+					return false;
+				}
+			}
+		}
+		return named || putSetter(defaultName, setter, setters);
+	}
+
+	private static boolean putSetter(String name, Setter setter, Map<String, Setter> setters) {
+		//fields mapped more than once are left for the reflective implementation to handle.
+		return setters.put(name.trim().toLowerCase(), setter) == null;
+	}
+
+	private static Supplier<Object> constructorOf(Class<?> beanType) throws Throwable {
+		Constructor<?> constructor = beanType.getDeclaredConstructor();
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		if (isPublic(beanType) && Modifier.isPublic(constructor.getModifiers())) {
+			MethodHandle handle = lookup.unreflectConstructor(constructor);
+			CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class), handle, MethodType.methodType(beanType));
+			@SuppressWarnings("unchecked")
+			Supplier<Object> out = (Supplier<Object>) site.getTarget().invoke();
+			return out;
+		}
+		constructor.setAccessible(true);
+		final MethodHandle handle = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+		return new Supplier<Object>() {
+			@Override
+			public Object get() {
+				try {
+					return handle.invokeExact();
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException("Unable to instantiate " + handle.type().returnType().getName(), e);
+				}
+			}
+		};
+	}
+
+	private static Setter setterOf(Class<?> beanType, Method method, Class<?> type) throws Throwable {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		if (isPublic(beanType) && isPublic(method.getDeclaringClass()) && Modifier.isPublic(method.getModifiers())) {
+			MethodHandle handle = lookup.unreflect(method);
+			Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+			CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), handle,
+					MethodType.methodType(void.class, method.getDeclaringClass(), boxed));
+			@SuppressWarnings("unchecked")
+			BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) site.getTarget().invoke();
+			return new Setter(method, type, consumer, null);
+		}
+		method.setAccessible(true);
+		MethodHandle handle = lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return new Setter(method, type, null, handle);
+	}
+
+	private static Setter setterOf(Class<?> beanType, Field field, Class<?> type) throws Throwable {
+		String name = field.getName();
+		String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		try {
+			Method setter = beanType.getMethod(setterName, type);
+			if (!Modifier.isStatic(setter.getModifiers())) {
+				return setterOf(beanType, setter, type);
+			}
+		} catch (NoSuchMethodException e) {
+			//no setter, assign the field directly
+		}
+		field.setAccessible(true);
+		MethodHandle handle = MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return new Setter(field, type, null, handle);
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+			if (!Modifier.isPublic(c.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Converts a value parsed from the input and assigns it to an attribute of a bean.
+	 */
+	static final class Setter {
+		private final Object target;
+		private final Conversion<String, ?> conversion;
+		private final boolean primitive;
+		private final BiConsumer<Object, Object> consumer;
+		private final MethodHandle handle;
+
+		private Setter(Object target, Class<?> type, BiConsumer<Object, Object> consumer, MethodHandle handle) {
+			Supplier<Conversion<String, ?>> conversion = SUPPORTED_TYPES.get(type);
+			this.target = target;
+			this.primitive = type.isPrimitive();
+			this.conversion = conversion == null ? null : conversion.get();
+			this.consumer = consumer;
+			this.handle = handle;
+		}
+
+		Object convert(String value) {
+			Object converted = conversion == null ? value : conversion.execute(value);
+			if (converted == null && primitive) {
+				throw new IllegalArgumentException("Unable to assign null to primitive " + target);
+			}
+			return converted;
+		}
+
+		void assign(Object bean, Object converted, String value) {
+			if (consumer != null) {
+				consumer.accept(bean, converted);
+			} else {
+				try {
+					handle.invokeExact(bean, converted);
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IllegalStateException("Unable to assign value '" + value + "' to " + target, e);
+				}
+			}
+		}
+	}
+
+	private static final class Layout {
+		final String[] headers;
+		final int[] indexes;
+		final boolean reordered;
+		final Setter[] setters;
+
+		Layout(String[] headers, int[] indexes, boolean reordered, Setter[] setters) {
+			this.headers = headers;
+			this.indexes = indexes;
+			this.reordered = reordered;
+			this.setters = setters;
+		}
+	}
+}
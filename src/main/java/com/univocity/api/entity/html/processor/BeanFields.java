@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.parsers.annotations.*;
+
+import java.lang.annotation.*;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Identifies the names of the fields mapped to attributes and setters of an annotated java bean. Used by the bean
+ * processors to implement {@link FieldConsumer}.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class BeanFields {
+
+	private static final Map<Class<?>, Set<String>> cache = new WeakHashMap<Class<?>, Set<String>>();
+	private static final Set<String> ALL_FIELDS = Collections.emptySet();
+
+	private BeanFields() {
+	}
+
+	/**
+	 * Returns the names of the fields consumed by a given bean type, considering only the names declared
+	 * in the {@link Parsed} annotations of the class hierarchy, or the names of the annotated attributes and setters.
+	 *
+	 * @param beanType the annotated class
+	 * @param availableFields the names of the fields available in the input.
+	 *
+	 * @return the names of all fields consumed by the bean, or `null` if the bean uses field positions, nested beans
+	 * or custom annotations that prevent identifying which fields are read.
+	 */
+	static Set<String> consumedBy(Class<?> beanType, Set<String> availableFields) {
+		Set<String> names;
+		synchronized (cache) {
+			names = cache.get(beanType);
+			if (names == null) {
+				names = identifyFields(beanType);
+				cache.put(beanType, names);
+			}
+		}
+		if (names == ALL_FIELDS) {
+			return null;
+		}
+
+		Set<String> out = new LinkedHashSet<String>();
+		for (String available : availableFields) {
+			if (names.contains(available.trim().toLowerCase())) {
+				out.add(available);
+			}
+		}
+		return out;
+	}
+
+	private static Set<String> identifyFields(Class<?> beanType) {
+		Set<String> names = new HashSet<String>();
+		for (Class<?> c = beanType; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (!collect(field, field.getName(), names)) {
+					return ALL_FIELDS;
+				}
+			}
+			for (Method method : c.getDeclaredMethods()) {
+				if (!collect(method, propertyName(method), names)) {
+					return ALL_FIELDS;
+				}
+			}
+		}
+		return names;
+	}
+
+	private static String propertyName(Method method) {
+		String name = method.getName();
+		int parameters = method.getParameterTypes().length;
+		if (parameters == 1 && name.length() > 3 && name.startsWith("set")) {
+			return decapitalize(name.substring(3));
+		}
+		if (parameters == 0 && name.length() > 3 && name.startsWith("get")) {
+			return decapitalize(name.substring(3));
+		}
+		if (parameters == 0 && name.length() > 2 && name.startsWith("is")) {
+			return decapitalize(name.substring(2));
+		}
+		return name;
+	}
+
+	private static String decapitalize(String name) {
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static boolean collect(AnnotatedElement element, String defaultName, Set<String> names) {
+		for (Annotation annotation : element.getAnnotations()) {
+			Class<? extends Annotation> type = annotation.annotationType();
+			if (type == Parsed.class) {
+				Object declared = attribute(annotation, "field");
+				Object index = attribute(annotation, "index");
+				boolean named = false;
+				if (declared instanceof String[]) {
+					for (String name : (String[]) declared) {
+						named |= add(name, names);
+					}
+				} else if (declared instanceof String) {
+					named = add((String) declared, names);
+				}
+				if (!named) {
+					if (index instanceof Integer && (Integer) index >= 0) {
+						return false;
+					}
+					add(defaultName, names);
+				}
+			} else if (type == Nested.class || type.isAnnotationPresent(Nested.class) || type.isAnnotationPresent(Parsed.class)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean add(String name, Set<String> names) {
+		if (name == null || name.trim().isEmpty()) {
+			return false;
+		}
+		names.add(name.trim().toLowerCase());
+		return true;
+	}
+
+	static Object attribute(Annotation annotation, String attributeName) {
+		try {
+			return annotation.annotationType().getMethod(attributeName).invoke(annotation);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+}
@@ -10,6 +10,8 @@ import com.univocity.api.entity.html.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.common.processor.core.*;
 
+import java.util.*;
+
 /**
  * A convenience {@link BeanProcessor} implementation for storing all java objects generated form the parsed input into a list.
  * A typical use case of this class will be:
@@ -30,7 +32,11 @@ import com.univocity.parsers.common.processor.core.*;
  * @see HtmlParser
  * @see HtmlEntitySettings
  */
-public class BeanListProcessor<T> extends AbstractBeanListProcessor<T, HtmlParsingContext> implements RowProcessor {
+public class BeanListProcessor<T> extends AbstractBeanListProcessor<T, HtmlParsingContext> implements RowProcessor, FieldConsumer, RowReuseSupport {
+
+	private final Class<T> beanType;
+	private final GeneratedAccessors<T> generatedAccessors;
+	private boolean rowReuseSupported;
 
 	/**
 	 * Creates a processor that stores java beans of a given type into a list
@@ -39,7 +45,81 @@ public class BeanListProcessor<T> extends AbstractBeanListProcessor<T, HtmlParsi
 	 */
 	public BeanListProcessor(Class<T> beanType) {
 		super(beanType);
+		this.beanType = beanType;
+		this.generatedAccessors = new GeneratedAccessors<T>(beanType);
+	}
+
+	/**
+	 * Indicates whether beans are created and populated using accessors generated at runtime instead of reflection
+	 * (see {@link BeanProcessor#setGeneratedAccessorsEnabled(boolean)}).
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if generated accessors should be used for simple beans.
+	 */
+	public final boolean isGeneratedAccessorsEnabled() {
+		return generatedAccessors.isEnabled();
 	}
 
+	/**
+	 * Defines whether beans are created and populated using accessors generated at runtime instead of reflection.
+	 * The same rules and restrictions described in {@link BeanProcessor#setGeneratedAccessorsEnabled(boolean)} apply.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param generatedAccessorsEnabled flag indicating whether generated accessors should be used for simple beans.
+	 */
+	public final void setGeneratedAccessorsEnabled(boolean generatedAccessorsEnabled) {
+		generatedAccessors.setEnabled(generatedAccessorsEnabled);
+	}
+
+	@Override
+	public void rowProcessed(String[] row, HtmlParsingContext context) {
+		T bean = generatedAccessors.createBean(row, context);
+		if (bean != null) {
+			beanProcessed(bean, context);
+		} else {
+			super.rowProcessed(row, context);
+		}
+	}
 
+	/**
+	 * Returns the names of the fields mapped to the attributes and setters of the bean type handled by this
+	 * processor, so that the parser can skip fields that are not used to populate the beans.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return the fields mapped to the bean, or `null` if the bean is mapped by field position or uses nested
+	 * beans, in which case all fields are evaluated.
+	 */
+	@Override
+	public Set<String> getConsumedFields(Set<String> availableFields) {
+		return BeanFields.consumedBy(beanType, availableFields);
+	}
+
+	/**
+	 * Indicates whether this processor can receive a reused row buffer. The values of each row are converted and
+	 * assigned to a new bean, which is added to the list of beans, and this class doesn't keep the row itself, but subclasses might. Row reuse must be
+	 * enabled explicitly with {@link #setRowReuseSupported(boolean)}.
+	 *
+	 * @return `true` if rows are not kept after being processed and can be reused by the parser.
+	 */
+	@Override
+	public boolean supportsRowReuse() {
+		return rowReuseSupported;
+	}
+
+	/**
+	 * Defines whether this processor can receive a reused row buffer, i.e. the same `String[]` with different values
+	 * for every record (see {@link HtmlParserSettings#setRowReuseEnabled(boolean)}). Only enable this if no code in
+	 * this processor, including subclasses that override {@link #rowProcessed(String[], HtmlParsingContext)}, keeps
+	 * references to the rows received.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param rowReuseSupported flag indicating whether rows given to this processor can be reused by the parser.
+	 */
+	public final void setRowReuseSupported(boolean rowReuseSupported) {
+		this.rowReuseSupported = rowReuseSupported;
+	}
 }
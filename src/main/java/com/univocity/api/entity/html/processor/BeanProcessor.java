@@ -10,6 +10,8 @@ import com.univocity.parsers.annotations.helpers.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.common.processor.core.*;
 
+import java.util.*;
+
 /**
  * A {@link RowProcessor} implementation for converting rows extracted from any implementation of {@link HtmlParser} into java objects.
  * The class type of the object must contain the annotations provided in {@link com.univocity.parsers.annotations}.
@@ -25,7 +27,11 @@ import com.univocity.parsers.common.processor.core.*;
  * @see RowProcessor
  * @see AbstractBeanProcessor
  */
-public abstract class BeanProcessor<T> extends AbstractBeanProcessor<T, HtmlParsingContext> implements RowProcessor {
+public abstract class BeanProcessor<T> extends AbstractBeanProcessor<T, HtmlParsingContext> implements RowProcessor, FieldConsumer, RowReuseSupport {
+
+	private final Class<T> beanType;
+	private final GeneratedAccessors<T> generatedAccessors;
+	private boolean rowReuseSupported;
 
 	/**
 	 * Creates a processor for java beans of a given type.
@@ -34,7 +40,93 @@ public abstract class BeanProcessor<T> extends AbstractBeanProcessor<T, HtmlPars
 	 */
 	public BeanProcessor(Class<T> beanType) {
 		super(beanType, MethodFilter.ONLY_SETTERS);
+		this.beanType = beanType;
+		this.generatedAccessors = new GeneratedAccessors<T>(beanType);
 	}
 
+	/**
+	 * Indicates whether beans are created and populated using accessors generated at runtime instead of reflection
+	 * (see {@link #setGeneratedAccessorsEnabled(boolean)}).
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if generated accessors should be used for simple beans.
+	 */
+	public final boolean isGeneratedAccessorsEnabled() {
+		return generatedAccessors.isEnabled();
+	}
+
+	/**
+	 * Defines whether beans are created and populated using accessors generated at runtime (with
+	 * {@link java.lang.invoke.LambdaMetafactory} and {@link java.lang.invoke.MethodHandle}s) instead of reflection.
+	 * The mapping of headers to setters is resolved once for each bean class and header layout, and reused for
+	 * every record.
+	 *
+	 * Generated accessors are only used for beans whose attributes and setters are mapped by name with plain
+	 * {@link com.univocity.parsers.annotations.Parsed} annotations, to {@link String}s, numeric primitives, their
+	 * wrappers, {@link java.math.BigDecimal} or {@link java.math.BigInteger}, which are converted with the default
+	 * conversions. Beans that use any other annotation or type are processed with reflection, as are rows with values
+	 * that can't be converted, so that errors are handled as usual. Exceptions thrown by the constructor or setters
+	 * of a bean are propagated, without processing the row again.
+	 *
+	 * Generated accessors don't apply conversions added programmatically to this processor (with {@code convertFields},
+	 * {@code convertIndexes}, {@code convertAll} or {@code convertType}). Don't enable them if such conversions are used.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param generatedAccessorsEnabled flag indicating whether generated accessors should be used for simple beans.
+	 */
+	public final void setGeneratedAccessorsEnabled(boolean generatedAccessorsEnabled) {
+		generatedAccessors.setEnabled(generatedAccessorsEnabled);
+	}
+
+	@Override
+	public void rowProcessed(String[] row, HtmlParsingContext context) {
+		T bean = generatedAccessors.createBean(row, context);
+		if (bean != null) {
+			beanProcessed(bean, context);
+		} else {
+			super.rowProcessed(row, context);
+		}
+	}
 
+	/**
+	 * Returns the names of the fields mapped to the attributes and setters of the bean type handled by this
+	 * processor, so that the parser can skip fields that are not used to populate the beans.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return the fields mapped to the bean, or `null` if the bean is mapped by field position or uses nested
+	 * beans, in which case all fields are evaluated.
+	 */
+	@Override
+	public Set<String> getConsumedFields(Set<String> availableFields) {
+		return BeanFields.consumedBy(beanType, availableFields);
+	}
+
+	/**
+	 * Indicates whether this processor can receive a reused row buffer. The values of each row are converted and
+	 * assigned to a new bean, which is then given to {@link #beanProcessed(Object, HtmlParsingContext)}, and this class doesn't keep the row itself, but subclasses might. Row reuse must be
+	 * enabled explicitly with {@link #setRowReuseSupported(boolean)}.
+	 *
+	 * @return `true` if rows are not kept after being processed and can be reused by the parser.
+	 */
+	@Override
+	public boolean supportsRowReuse() {
+		return rowReuseSupported;
+	}
+
+	/**
+	 * Defines whether this processor can receive a reused row buffer, i.e. the same `String[]` with different values
+	 * for every record (see {@link HtmlParserSettings#setRowReuseEnabled(boolean)}). Only enable this if no code in
+	 * this processor, including subclasses that override {@link #rowProcessed(String[], HtmlParsingContext)}, keeps
+	 * references to the rows received.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @param rowReuseSupported flag indicating whether rows given to this processor can be reused by the parser.
+	 */
+	public final void setRowReuseSupported(boolean rowReuseSupported) {
+		this.rowReuseSupported = rowReuseSupported;
+	}
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import java.util.*;
+
+/**
+ * Collects the fields consumed by processors that delegate rows to other processors, such as
+ * {@link AsyncRowProcessor} and the switch implementations, so they can act as a {@link FieldConsumer} on behalf
+ * of their delegates. Once any delegate requires all fields, the result is `null`.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class ConsumedFields {
+
+	private final Set<String> availableFields;
+	private Set<String> consumed = new LinkedHashSet<String>();
+
+	ConsumedFields(Set<String> availableFields) {
+		this.availableFields = availableFields;
+	}
+
+	/**
+	 * Returns the fields consumed by a processor.
+	 *
+	 * @param processor       the processor whose consumed fields will be returned.
+	 * @param availableFields the names of all fields available to the processor.
+	 *
+	 * @return the fields consumed by the processor, or `null` if it doesn't implement {@link FieldConsumer}.
+	 */
+	static Set<String> of(Object processor, Set<String> availableFields) {
+		if (processor instanceof FieldConsumer) {
+			return ((FieldConsumer) processor).getConsumedFields(availableFields);
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a field read directly by the processor that collects the fields.
+	 *
+	 * @param fieldName the name of the field.
+	 *
+	 * @return this object, for chaining.
+	 */
+	ConsumedFields addField(String fieldName) {
+		if (consumed != null) {
+			String field = find(fieldName);
+			if (field == null) {
+				consumed = null;
+			} else {
+				consumed.add(field);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Adds a field read directly by the processor that collects the fields.
+	 *
+	 * @param index the position of the field in the rows.
+	 *
+	 * @return this object, for chaining.
+	 */
+	ConsumedFields addField(int index) {
+		if (consumed != null) {
+			String field = fieldAt(index);
+			if (field == null) {
+				consumed = null;
+			} else {
+				consumed.add(field);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Adds the fields consumed by a delegate processor.
+	 *
+	 * @param processor    the delegate processor, or `null` if rows are discarded.
+	 * @param headersToUse the headers assigned to the rows given to the delegate, if any. As the delegate doesn't see
+	 *                     the original field names, all fields are considered consumed.
+	 * @param indexesToUse the positions of the values given to the delegate, if any.
+	 *
+	 * @return this object, for chaining.
+	 */
+	ConsumedFields addProcessor(Object processor, String[] headersToUse, int[] indexesToUse) {
+		if (consumed == null || processor == null) {
+			return this;
+		}
+		if (headersToUse != null && headersToUse.length > 0) {
+			consumed = null;
+			return this;
+		}
+		Set<String> fields = availableFields;
+		if (indexesToUse != null && indexesToUse.length > 0) {
+			fields = new LinkedHashSet<String>();
+			for (int index : indexesToUse) {
+				String field = fieldAt(index);
+				if (field == null) {
+					consumed = null;
+					return this;
+				}
+				fields.add(field);
+			}
+			fields = Collections.unmodifiableSet(fields);
+		}
+		Set<String> used = of(processor, fields);
+		if (used == null) {
+			if (fields == availableFields) {
+				consumed = null;
+			} else {
+				consumed.addAll(fields);
+			}
+		} else {
+			consumed.addAll(used);
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the fields consumed.
+	 *
+	 * @return the fields collected so far, or `null` if all fields are required.
+	 */
+	Set<String> get() {
+		return consumed == null ? null : Collections.unmodifiableSet(consumed);
+	}
+
+	private String find(String fieldName) {
+		if (fieldName != null) {
+			String name = fieldName.trim();
+			for (String field : availableFields) {
+				if (field != null && field.trim().equalsIgnoreCase(name)) {
+					return field;
+				}
+			}
+		}
+		return null;
+	}
+
+	private String fieldAt(int index) {
+		if (index < 0 || index >= availableFields.size()) {
+			return null;
+		}
+		Iterator<String> it = availableFields.iterator();
+		for (int i = 0; i < index; i++) {
+			it.next();
+		}
+		return it.next();
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+
+import java.util.*;
+
+/**
+ * Allows a {@link RowProcessor} to inform the {@link HtmlParser} which fields of an entity it actually reads. Before
+ * parsing, the parser collects this information through {@link HtmlEntitySettings#getRequiredFieldNames()} and skips
+ * the evaluation of paths associated with fields nobody consumes. This makes wide entity definitions cheap to use
+ * by processors that only need a few of their fields.
+ *
+ * Rows sent to the processor still have the same length and field positions: values of fields that were not
+ * evaluated are simply left as `null`.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlEntitySettings#getRequiredFieldNames()
+ */
+public interface FieldConsumer {
+
+	/**
+	 * Returns the names of the fields whose values are read by this processor.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return the subset of the available fields that this processor uses, or `null` if every field must be
+	 * evaluated.
+	 */
+	Set<String> getConsumedFields(Set<String> availableFields);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.parsers.common.*;
+
+/**
+ * Holds the {@link BeanAccessors} of a bean processor while generated accessors are enabled. Shared by
+ * {@link BeanProcessor} and {@link BeanListProcessor}, which extend different base classes.
+ *
+ * @param <T> the annotated class type.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class GeneratedAccessors<T> {
+
+	private final Class<T> beanType;
+	private boolean enabled;
+	private BeanAccessors accessors;
+
+	GeneratedAccessors(Class<T> beanType) {
+		this.beanType = beanType;
+	}
+
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		this.accessors = enabled ? BeanAccessors.of(beanType) : null;
+	}
+
+	/**
+	 * Creates a bean with the values of a row, if generated accessors are enabled and support the bean type.
+	 *
+	 * @param row     the row with values to assign to the bean.
+	 * @param context the context of the parsing process.
+	 *
+	 * @return the new bean, or `null` if the row must be processed with reflection.
+	 */
+	T createBean(String[] row, Context context) {
+		BeanAccessors accessors = this.accessors;
+		if (accessors == null) {
+			return null;
+		}
+		return beanType.cast(accessors.createBean(context, row));
+	}
+}
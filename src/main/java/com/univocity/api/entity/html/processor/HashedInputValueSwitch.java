@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+import com.univocity.parsers.common.processor.*;
+import com.univocity.parsers.common.processor.core.*;
+
+import java.util.*;
+
+/**
+ * A concrete implementation of {@link RowProcessorSwitch} that allows switching among different implementations of
+ * {@link RowProcessor} based on values found on the rows parsed from the input, like {@link InputValueSwitch}, but
+ * built for entities with many possible values to switch on.
+ *
+ * * The {@link RowProcessor} associated with each value is located with a hash lookup that takes constant time
+ *   regardless of the number of values registered, and doesn't allocate objects, even when values are matched
+ *   ignoring case (see {@link #setCaseSensitive(boolean)}).
+ * * The lookup table is built once, when the first row is processed after switches are added or modified. The
+ *   position of the column to switch on is only resolved again when the headers of the input change.
+ *
+ * Switches registered with a {@link CustomMatcher} are evaluated in the order they were added, before any value
+ * added after them, so the first switch that matches a row is always selected, as with {@link InputValueSwitch}.
+ *
+ * Rows whose value is not associated with any {@link RowProcessor}, and no default processor is defined with
+ * {@link #setDefaultSwitch(RowProcessor)}, are discarded.
+ *
+ * Example:
+ *
+ * ```java
+ * HashedInputValueSwitch byType = new HashedInputValueSwitch("type");
+ * byType.addSwitchForValue("book", bookProcessor);
+ * byType.addSwitchForValue("dvd", dvdProcessor, 0, 1, 4);
+ * byType.setDefaultSwitch(otherProcessor);
+ *
+ * entity.setProcessor(byType);
+ * ```
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see InputValueSwitch
+ * @see RowProcessorSwitch
+ */
+public class HashedInputValueSwitch extends RowProcessorSwitch {
+
+	private final int columnIndex;
+	private final String columnName;
+	private boolean caseSensitive = true;
+
+	private final Map<String, Route> routesByValue = new LinkedHashMap<String, Route>();
+	private final List<Route> matcherRoutes = new ArrayList<Route>();
+	private Route defaultRoute;
+	private int routeCount;
+
+	private boolean compiled;
+	private String[] tableKeys;
+	private Route[] tableRoutes;
+	private Route[] matchers;
+
+	private String[] resolvedHeaders;
+	private int column = -1;
+	private Route selected;
+
+	/**
+	 * Creates a switch that will analyze the first column of rows found in the input to determine which
+	 * {@link RowProcessor} to use for each parsed row
+	 */
+	public HashedInputValueSwitch() {
+		this(0);
+	}
+
+	/**
+	 * Creates a switch that will analyze a column of rows parsed from the input to determine which
+	 * {@link RowProcessor} to use.
+	 *
+	 * @param columnIndex the column index whose value will be used to determine which {@link RowProcessor} to use for each parsed row.
+	 */
+	public HashedInputValueSwitch(int columnIndex) {
+		if (columnIndex < 0) {
+			throw new IllegalArgumentException("Column index must be positive");
+		}
+		this.columnIndex = columnIndex;
+		this.columnName = null;
+	}
+
+	/**
+	 * Creates a switch that will analyze a column in rows parsed from the input to determine which
+	 * {@link RowProcessor} to use.
+	 *
+	 * @param columnName name of the column whose values will be used to determine which {@link RowProcessor} to use for each parsed row.
+	 */
+	public HashedInputValueSwitch(String columnName) {
+		if (columnName == null || columnName.trim().isEmpty()) {
+			throw new IllegalArgumentException("Column name cannot be blank");
+		}
+		this.columnIndex = -1;
+		this.columnName = columnName;
+	}
+
+	/**
+	 * Indicates whether values are matched considering their case.
+	 *
+	 * Defaults to `true`
+	 *
+	 * @return `true` if the case of values must match, otherwise `false`.
+	 */
+	public final boolean isCaseSensitive() {
+		return caseSensitive;
+	}
+
+	/**
+	 * Defines whether values are matched considering their case.
+	 *
+	 * Defaults to `true`
+	 *
+	 * @param caseSensitive flag indicating whether the case of values must match.
+	 */
+	public final void setCaseSensitive(boolean caseSensitive) {
+		this.caseSensitive = caseSensitive;
+		this.compiled = false;
+	}
+
+	/**
+	 * Associates a {@link RowProcessor} to be used when a given value is found in the column analyzed by this switch.
+	 *
+	 * @param value     the value that, when found in the column, selects the given processor.
+	 * @param processor the processor to use for rows with the given value
+	 */
+	public void addSwitchForValue(String value, RowProcessor processor) {
+		addRoute(value, new Route(processor, null, null, null, routeCount));
+	}
+
+	/**
+	 * Associates a {@link RowProcessor} to be used when a given value is found in the column analyzed by this switch.
+	 *
+	 * @param value        the value that, when found in the column, selects the given processor.
+	 * @param processor    the processor to use for rows with the given value
+	 * @param headersToUse the (optional) sequence of headers to assign to the rows received by the processor.
+	 */
+	public void addSwitchForValue(String value, RowProcessor processor, String... headersToUse) {
+		addRoute(value, new Route(processor, null, headersToUse, null, routeCount));
+	}
+
+	/**
+	 * Associates a {@link RowProcessor} to be used when a given value is found in the column analyzed by this switch.
+	 *
+	 * @param value        the value that, when found in the column, selects the given processor.
+	 * @param processor    the processor to use for rows with the given value
+	 * @param indexesToUse the (optional) sequence of column indexes whose values will be sent to the processor.
+	 */
+	public void addSwitchForValue(String value, RowProcessor processor, int... indexesToUse) {
+		addRoute(value, new Route(processor, null, null, indexesToUse, routeCount));
+	}
+
+	/**
+	 * Associates a {@link RowProcessor} to be used when the value in the column analyzed by this switch is accepted
+	 * by a {@link CustomMatcher}.
+	 *
+	 * @param matcher   a user-provided implementation of {@link CustomMatcher} to determine whether the value
+	 *                  selects the given processor.
+	 * @param processor the processor to use for rows with matching values
+	 */
+	public void addSwitchForValue(CustomMatcher matcher, RowProcessor processor) {
+		addMatcherRoute(new Route(processor, matcher, null, null, routeCount));
+	}
+
+	/**
+	 * Associates a {@link RowProcessor} to be used when the value in the column analyzed by this switch is accepted
+	 * by a {@link CustomMatcher}.
+	 *
+	 * @param matcher      a user-provided implementation of {@link CustomMatcher} to determine whether the value
+	 *                     selects the given processor.
+	 * @param processor    the processor to use for rows with matching values
+	 * @param headersToUse the (optional) sequence of headers to assign to the rows received by the processor.
+	 */
+	public void addSwitchForValue(CustomMatcher matcher, RowProcessor processor, String... headersToUse) {
+		addMatcherRoute(new Route(processor, matcher, headersToUse, null, routeCount));
+	}
+
+	/**
+	 * Associates a {@link RowProcessor} to be used when the value in the column analyzed by this switch is accepted
+	 * by a {@link CustomMatcher}.
+	 *
+	 * @param matcher      a user-provided implementation of {@link CustomMatcher} to determine whether the value
+	 *                     selects the given processor.
+	 * @param processor    the processor to use for rows with matching values
+	 * @param indexesToUse the (optional) sequence of column indexes whose values will be sent to the processor.
+	 */
+	public void addSwitchForValue(CustomMatcher matcher, RowProcessor processor, int... indexesToUse) {
+		addMatcherRoute(new Route(processor, matcher, null, indexesToUse, routeCount));
+	}
+
+	/**
+	 * Defines the {@link RowProcessor} to be used for rows whose value is not associated with any other processor.
+	 *
+	 * @param processor the default processor, or `null` to discard rows that can't be associated with a processor.
+	 */
+	public void setDefaultSwitch(RowProcessor processor) {
+		defaultRoute = processor == null ? null : new Route(processor, null, null, null, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Defines the {@link RowProcessor} to be used for rows whose value is not associated with any other processor.
+	 *
+	 * @param processor    the default processor, or `null` to discard rows that can't be associated with a processor.
+	 * @param headersToUse the (optional) sequence of headers to assign to the rows received by the processor.
+	 */
+	public void setDefaultSwitch(RowProcessor processor, String... headersToUse) {
+		defaultRoute = processor == null ? null : new Route(processor, null, headersToUse, null, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Defines the {@link RowProcessor} to be used for rows whose value is not associated with any other processor.
+	 *
+	 * @param processor    the default processor, or `null` to discard rows that can't be associated with a processor.
+	 * @param indexesToUse the (optional) sequence of column indexes whose values will be sent to the processor.
+	 */
+	public void setDefaultSwitch(RowProcessor processor, int... indexesToUse) {
+		defaultRoute = processor == null ? null : new Route(processor, null, null, indexesToUse, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns a flag indicating whether a default {@link RowProcessor} has been defined.
+	 *
+	 * @return `true` if rows that can't be associated with a processor are sent to a default processor.
+	 */
+	public final boolean hasDefaultSwitch() {
+		return defaultRoute != null;
+	}
+
+	/**
+	 * Returns the names of the fields read by this switch: the column analyzed to select a processor, and the fields
+	 * consumed by all processors associated with this switch.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return the fields used by this switch and its processors, or `null` if every field must be evaluated.
+	 */
+	@Override
+	public Set<String> getConsumedFields(Set<String> availableFields) {
+		ConsumedFields out = new ConsumedFields(availableFields);
+		if (columnName == null) {
+			out.addField(columnIndex);
+		} else {
+			out.addField(columnName);
+		}
+		for (Route route : routesByValue.values()) {
+			out.addProcessor(route.processor, route.headers, route.indexes);
+		}
+		for (Route route : matcherRoutes) {
+			out.addProcessor(route.processor, route.headers, route.indexes);
+		}
+		if (defaultRoute != null) {
+			out.addProcessor(defaultRoute.processor, defaultRoute.headers, defaultRoute.indexes);
+		}
+		return out.get();
+	}
+
+	private void addRoute(String value, Route route) {
+		routesByValue.put(value, route);
+		routeCount++;
+		compiled = false;
+	}
+
+	private void addMatcherRoute(Route route) {
+		if (route.matcher == null) {
+			throw new IllegalArgumentException("Custom matcher cannot be null");
+		}
+		matcherRoutes.add(route);
+		routeCount++;
+		compiled = false;
+	}
+
+	@Override
+	public void processStarted(HtmlParsingContext context) {
+		super.processStarted(context);
+		selected = null;
+		resolvedHeaders = null;
+		column = -1;
+	}
+
+	@Override
+	protected Processor<HtmlParsingContext> switchRowProcessor(String[] row, HtmlParsingContext context) {
+		if (!compiled) {
+			compile();
+		}
+		int index = columnOf(context.headers());
+		String value = index < row.length ? row[index] : null;
+
+		Route route = find(value);
+		if (route == null) {
+			route = defaultRoute;
+		}
+		selected = route;
+		return route == null ? null : route.processor;
+	}
+
+	@Override
+	public String[] getHeaders() {
+		return selected == null ? null : selected.headers;
+	}
+
+	@Override
+	public int[] getIndexes() {
+		return selected == null ? null : selected.indexes;
+	}
+
+	@Override
+	protected HtmlParsingContext wrapContext(HtmlParsingContext context) {
+		Route route = selected;
+		if (route == null || (route.headers == null && route.indexes == null)) {
+			return context;
+		}
+		return new RouteContext(context, route.headers, route.indexes);
+	}
+
+	private int columnOf(String[] headers) {
+		if (columnName == null) {
+			return columnIndex;
+		}
+		if (column == -1 || headers != resolvedHeaders) {
+			column = indexOf(columnName, headers);
+			if (column == -1) {
+				throw new IllegalStateException("Column '" + columnName + "' not found. Available columns are: " + Arrays.toString(headers));
+			}
+			resolvedHeaders = headers;
+		}
+		return column;
+	}
+
+	private void compile() {
+		int size = 4;
+		while (size < routesByValue.size() * 2) {
+			size <<= 1;
+		}
+		tableKeys = new String[size];
+		tableRoutes = new Route[size];
+		for (Map.Entry<String, Route> e : routesByValue.entrySet()) {
+			String key = e.getKey();
+			int i = hash(key) & (size - 1);
+			while (tableRoutes[i] != null && !matches(tableKeys[i], key)) {
+				i = (i + 1) & (size - 1);
+			}
+			//the first value registered wins when values differ only by case
+			if (tableRoutes[i] == null) {
+				tableKeys[i] = key;
+				tableRoutes[i] = e.getValue();
+			}
+		}
+		matchers = matcherRoutes.toArray(new Route[0]);
+		compiled = true;
+	}
+
+	private Route find(String value) {
+		int mask = tableKeys.length - 1;
+		int i = hash(value) & mask;
+		Route out = null;
+		while (tableRoutes[i] != null) {
+			if (matches(tableKeys[i], value)) {
+				out = tableRoutes[i];
+				break;
+			}
+			i = (i + 1) & mask;
+		}
+		for (int m = 0; m < matchers.length; m++) {
+			Route route = matchers[m];
+			if (out != null && route.order > out.order) {
+				break;
+			}
+			if (route.matcher.matches(value)) {
+				return route;
+			}
+		}
+		return out;
+	}
+
+	private boolean matches(String key, String value) {
+		if (key == null || value == null) {
+			return key == value;
+		}
+		return caseSensitive ? key.equals(value) : key.equalsIgnoreCase(value);
+	}
+
+	private int hash(String value) {
+		if (value == null) {
+			return 0;
+		}
+		int h;
+		if (caseSensitive) {
+			h = value.hashCode();
+		} else {
+			h = 0;
+			for (int i = 0; i < value.length(); i++) {
+				h = 31 * h + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+			}
+		}
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int indexOf(String name, String[] headers) {
+		if (headers != null) {
+			for (int i = 0; i < headers.length; i++) {
+				if (headers[i] != null && name.trim().equalsIgnoreCase(headers[i].trim())) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private static final class Route {
+		final RowProcessor processor;
+		final CustomMatcher matcher;
+		final String[] headers;
+		final int[] indexes;
+		final int order;
+
+		Route(RowProcessor processor, CustomMatcher matcher, String[] headers, int[] indexes, int order) {
+			if (processor == null) {
+				throw new IllegalArgumentException("Row processor cannot be null");
+			}
+			if (indexes != null) {
+				for (int index : indexes) {
+					if (index < 0) {
+						throw new IllegalArgumentException("Column indexes must be positive. Got " + Arrays.toString(indexes));
+					}
+				}
+			}
+			this.processor = processor;
+			this.matcher = matcher;
+			this.headers = headers == null || headers.length == 0 ? null : headers.clone();
+			this.indexes = indexes == null || indexes.length == 0 ? null : indexes.clone();
+			this.order = order;
+		}
+	}
+
+	private static final class RouteContext extends HtmlContextWrapper {
+		private final String[] fieldNames;
+		private final int[] indexes;
+
+		RouteContext(HtmlParsingContext context, String[] fieldNames, int[] indexes) {
+			super(context);
+			if (fieldNames == null && indexes != null) {
+				String[] headers = context.headers();
+				if (headers != null) {
+					fieldNames = new String[indexes.length];
+					for (int i = 0; i < indexes.length; i++) {
+						fieldNames[i] = indexes[i] < headers.length ? headers[indexes[i]] : null;
+					}
+				}
+			}
+			this.fieldNames = fieldNames;
+			this.indexes = indexes;
+		}
+
+		@Override
+		public String[] headers() {
+			return fieldNames == null ? context.headers() : fieldNames;
+		}
+
+		@Override
+		public int[] extractedFieldIndexes() {
+			return indexes == null ? context.extractedFieldIndexes() : indexes;
+		}
+	}
+}
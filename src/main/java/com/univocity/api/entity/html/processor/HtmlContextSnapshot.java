@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+import com.univocity.api.net.*;
+import com.univocity.parsers.common.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A copy of the state of a {@link HtmlParsingContext} at the time a row was produced, which can be safely read
+ * from a thread other than the one running the parser. All values that change while parsing, including the current
+ * record and column, are captured when the copy is made. Only {@link #stop()} and {@link #isStopped()}, which control
+ * the parsing process, are delegated to the original context. {@link #toRecord(String[])} depends on the internal
+ * state of the parser and is not supported: use {@link #recordMetaData()} to read values from rows instead.
+ *
+ * Elements returned by {@link #currentElement()}, {@link #pageRoot()} and {@link #getMatchedElements()} are only
+ * guaranteed to be available until the parsing of the page they belong to ends.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+class HtmlContextSnapshot extends HtmlContextWrapper {
+
+	private final String[] headers;
+	private final String[] selectedHeaders;
+	private final int[] extractedFieldIndexes;
+	private final boolean columnsReordered;
+	private final int currentColumn;
+	private final long currentRecord;
+	private final int errorContentLength;
+	private final ResultRecordMetaData recordMetaData;
+	private final String entityName;
+	private final int currentNodeDepth;
+	private final HtmlElement currentElement;
+	private final HtmlElement pageRoot;
+	private final Map<String, String> matchedData;
+	private final Map<String, HtmlElement[]> matchedElements;
+	private final Map<String, File> files;
+	private final HttpResponse response;
+	private final Object documentSource;
+	private final DocumentPosition documentPosition;
+	private final long recordSequence;
+
+	/**
+	 * Captures the current state of the given context
+	 *
+	 * @param context the context whose state will be copied.
+	 */
+	HtmlContextSnapshot(HtmlParsingContext context) {
+		super(context);
+		this.headers = context.headers();
+		this.selectedHeaders = context.selectedHeaders();
+		this.extractedFieldIndexes = context.extractedFieldIndexes();
+		this.columnsReordered = context.columnsReordered();
+		this.currentColumn = context.currentColumn();
+		this.currentRecord = context.currentRecord();
+		this.errorContentLength = context.errorContentLength();
+		this.recordMetaData = context.recordMetaData();
+		this.entityName = context.entityName();
+		this.currentNodeDepth = context.currentNodeDepth();
+		this.currentElement = context.currentElement();
+		this.pageRoot = context.pageRoot();
+		this.matchedData = copy(context.matchedData());
+		this.matchedElements = copy(context.getMatchedElements());
+		this.response = context.response();
+		this.documentSource = context.documentSource();
+		this.documentPosition = context.documentPosition();
+		this.recordSequence = context.recordSequence();
+
+		Set<String> binaryFields = context.binaryFields();
+		if (binaryFields == null || binaryFields.isEmpty()) {
+			this.files = Collections.emptyMap();
+		} else {
+			this.files = new HashMap<String, File>(binaryFields.size());
+			for (String binaryField : binaryFields) {
+				files.put(binaryField, context.getFile(binaryField));
+			}
+		}
+	}
+
+	private static <T> Map<String, T> copy(Map<String, T> map) {
+		if (map == null || map.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		return Collections.unmodifiableMap(new LinkedHashMap<String, T>(map));
+	}
+
+	@Override
+	public String[] headers() {
+		return headers;
+	}
+
+	@Override
+	public String[] selectedHeaders() {
+		return selectedHeaders;
+	}
+
+	@Override
+	public int[] extractedFieldIndexes() {
+		return extractedFieldIndexes;
+	}
+
+	@Override
+	public boolean columnsReordered() {
+		return columnsReordered;
+	}
+
+	@Override
+	public int indexOf(String header) {
+		String[] fields = columnsReordered && selectedHeaders != null ? selectedHeaders : headers;
+		if (header == null || fields == null) {
+			return -1;
+		}
+		header = header.trim();
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i] != null && fields[i].trim().equalsIgnoreCase(header)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int indexOf(Enum<?> header) {
+		return header == null ? -1 : indexOf(header.toString());
+	}
+
+	@Override
+	public int currentColumn() {
+		return currentColumn;
+	}
+
+	@Override
+	public long currentRecord() {
+		return currentRecord;
+	}
+
+	@Override
+	public int errorContentLength() {
+		return errorContentLength;
+	}
+
+	@Override
+	public ResultRecordMetaData recordMetaData() {
+		return recordMetaData;
+	}
+
+	/**
+	 * Not supported, as records are built from the internal state of the parser, which can't be accessed safely
+	 * outside of the parsing thread.
+	 *
+	 * @param row ignored
+	 *
+	 * @return never returns
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public HtmlRecord toRecord(String[] row) {
+		throw new UnsupportedOperationException("Records can't be created from a copy of the parsing context. Use recordMetaData() to read values from the row.");
+	}
+
+	@Override
+	public String entityName() {
+		return entityName;
+	}
+
+	@Override
+	public int currentNodeDepth() {
+		return currentNodeDepth;
+	}
+
+	@Override
+	public HtmlElement currentElement() {
+		return currentElement;
+	}
+
+	@Override
+	public HtmlElement pageRoot() {
+		return pageRoot;
+	}
+
+	@Override
+	public Map<String, String> matchedData() {
+		return matchedData;
+	}
+
+	@Override
+	public Map<String, HtmlElement[]> getMatchedElements() {
+		return matchedElements;
+	}
+
+	@Override
+	public File getFile(String binaryFieldName) {
+		return files.get(binaryFieldName);
+	}
+
+	@Override
+	public Set<String> binaryFields() {
+		return files.keySet();
+	}
+
+	@Override
+	public HttpResponse response() {
+		return response;
+	}
+
+	@Override
+	public Object documentSource() {
+		return documentSource;
+	}
+
+	@Override
+	public DocumentPosition documentPosition() {
+		return documentPosition;
+	}
+
+	@Override
+	public long recordSequence() {
+		return recordSequence;
+	}
+}
@@ -88,4 +88,14 @@ public class HtmlContextWrapper extends ContextWrapper<HtmlParsingContext> imple
 	public Map<String, HtmlElement[]> getMatchedElements() {
 		return context.getMatchedElements();
 	}
+
+	@Override
+	public DocumentPosition documentPosition() {
+		return context.documentPosition();
+	}
+
+	@Override
+	public long recordSequence() {
+		return context.recordSequence();
+	}
 }
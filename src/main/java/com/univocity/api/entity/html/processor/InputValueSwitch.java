@@ -6,13 +6,25 @@
 package com.univocity.api.entity.html.processor;
 
 import com.univocity.api.entity.html.*;
+import com.univocity.parsers.common.processor.*;
 import com.univocity.parsers.common.processor.core.*;
 
+import java.util.*;
+
 /**
  * A concrete implementation of {@link RowProcessorSwitch} that allows switching among different implementations of
  * {@link RowProcessor} based on values found on the rows parsed from the input.
+ *
+ * Values are matched against each switch in sequence. When switching among many different values, use a
+ * {@link HashedInputValueSwitch} instead.
  */
-public class InputValueSwitch extends AbstractInputValueSwitch<HtmlParsingContext> implements RowProcessor{
+public class InputValueSwitch extends AbstractInputValueSwitch<HtmlParsingContext> implements RowProcessor, FieldConsumer {
+
+	private final int columnIndex;
+	private final String columnName;
+	private final List<Route> routes = new ArrayList<Route>();
+	private Route defaultRoute;
+
 	/**
 	 * Creates a switch that will analyze the first column of rows found in the input to determine which
 	 * {@link RowProcessor} to use for each parsed row
@@ -29,6 +41,8 @@ public class InputValueSwitch extends AbstractInputValueSwitch<HtmlParsingContex
 	 */
 	public InputValueSwitch(int columnIndex) {
 		super(columnIndex);
+		this.columnIndex = columnIndex;
+		this.columnName = null;
 	}
 
 	/**
@@ -39,6 +53,87 @@ public class InputValueSwitch extends AbstractInputValueSwitch<HtmlParsingContex
 	 */
 	public InputValueSwitch(String columnName) {
 		super(columnName);
+		this.columnIndex = -1;
+		this.columnName = columnName;
+	}
+
+	@Override
+	public void addSwitchForValue(String value, Processor<HtmlParsingContext> processor) {
+		super.addSwitchForValue(value, processor);
+		routes.add(new Route(processor, null, null));
+	}
+
+	@Override
+	public void addSwitchForValue(String value, Processor<HtmlParsingContext> processor, String... headersToUse) {
+		super.addSwitchForValue(value, processor, headersToUse);
+		routes.add(new Route(processor, headersToUse, null));
+	}
+
+	@Override
+	public void addSwitchForValue(String value, Processor<HtmlParsingContext> processor, int... indexesToUse) {
+		super.addSwitchForValue(value, processor, indexesToUse);
+		routes.add(new Route(processor, null, indexesToUse));
+	}
+
+	@Override
+	public void addSwitchForValue(CustomMatcher matcher, Processor<HtmlParsingContext> processor) {
+		super.addSwitchForValue(matcher, processor);
+		routes.add(new Route(processor, null, null));
+	}
+
+	@Override
+	public void addSwitchForValue(CustomMatcher matcher, Processor<HtmlParsingContext> processor, String... headersToUse) {
+		super.addSwitchForValue(matcher, processor, headersToUse);
+		routes.add(new Route(processor, headersToUse, null));
+	}
+
+	@Override
+	public void addSwitchForValue(CustomMatcher matcher, Processor<HtmlParsingContext> processor, int... indexesToUse) {
+		super.addSwitchForValue(matcher, processor, indexesToUse);
+		routes.add(new Route(processor, null, indexesToUse));
+	}
+
+	@Override
+	public void setDefaultSwitch(Processor<HtmlParsingContext> processor) {
+		super.setDefaultSwitch(processor);
+		defaultRoute = processor == null ? null : new Route(processor, null, null);
+	}
+
+	@Override
+	public void setDefaultSwitch(Processor<HtmlParsingContext> processor, String... headersToUse) {
+		super.setDefaultSwitch(processor, headersToUse);
+		defaultRoute = processor == null ? null : new Route(processor, headersToUse, null);
+	}
+
+	@Override
+	public void setDefaultSwitch(Processor<HtmlParsingContext> processor, int... indexesToUse) {
+		super.setDefaultSwitch(processor, indexesToUse);
+		defaultRoute = processor == null ? null : new Route(processor, null, indexesToUse);
+	}
+
+	/**
+	 * Returns the names of the fields read by this switch: the column analyzed to select a processor, and the fields
+	 * consumed by all processors associated with this switch.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return the fields used by this switch and its processors, or `null` if every field must be evaluated.
+	 */
+	@Override
+	public Set<String> getConsumedFields(Set<String> availableFields) {
+		ConsumedFields out = new ConsumedFields(availableFields);
+		if (columnName == null) {
+			out.addField(columnIndex);
+		} else {
+			out.addField(columnName);
+		}
+		for (Route route : routes) {
+			out.addProcessor(route.processor, route.headers, route.indexes);
+		}
+		if (defaultRoute != null) {
+			out.addProcessor(defaultRoute.processor, defaultRoute.headers, defaultRoute.indexes);
+		}
+		return out.get();
 	}
 
 	@Override
@@ -59,4 +154,16 @@ public class InputValueSwitch extends AbstractInputValueSwitch<HtmlParsingContex
 			}
 		};
 	}
+
+	private static final class Route {
+		final Processor<HtmlParsingContext> processor;
+		final String[] headers;
+		final int[] indexes;
+
+		Route(Processor<HtmlParsingContext> processor, String[] headers, int[] indexes) {
+			this.processor = processor;
+			this.headers = headers;
+			this.indexes = indexes;
+		}
+	}
 }
@@ -29,6 +29,9 @@ import com.univocity.parsers.common.processor.core.*;
  * List&lt;MasterDetailRecord&gt; rows = masterRowProcessor.getRecords();
  * }</pre><hr>
  *
+ * **Note:** All detail rows of a master row are kept in memory until the master record is fully processed. For inputs
+ * with very long lists of details, use a {@link StreamingMasterDetailProcessor} instead.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  * @see MasterDetailProcessor
  * @see RowProcessor
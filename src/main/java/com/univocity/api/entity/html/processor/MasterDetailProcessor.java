@@ -21,6 +21,9 @@ import com.univocity.parsers.conversions.*;
  *
  *  <b>Note</b> this class extends {@link ObjectRowProcessor} and value conversions provided by {@link Conversion} instances are fully supported.
  *
+ * **Note:** All detail rows of a master row are kept in memory until the master record is fully processed. For inputs
+ * with very long lists of details, use a {@link StreamingMasterDetailProcessor} instead.
+ *
  * @author Univocity Software Pty Ltd - <a href="mailto:parsers@univocity.com">parsers@univocity.com</a>
  * @see MasterDetailRecord
  * @see RowPlacement
@@ -20,7 +20,8 @@ import com.univocity.parsers.conversions.*;
  *  At the end of the process, the user can access the lists with values parsed for all columns using the methods {@link #getColumnValuesAsList()},
  * {@link #getColumnValuesAsMapOfIndexes()} and {@link #getColumnValuesAsMapOfNames()}.
  *
- * **Note:** Storing the values of all columns may be memory intensive. For large inputs, use a {@link BatchedObjectColumnProcessor} instead
+ * **Note:** Storing the values of all columns may be memory intensive. For large inputs, use a {@link BatchedObjectColumnProcessor} instead.
+ * Numeric values can also be stored in primitive arrays, see {@link #setPrimitiveColumnsEnabled(boolean)}.
  *
  * @see HtmlParser
  * @see RowProcessor
@@ -33,6 +34,9 @@ import com.univocity.parsers.conversions.*;
  */
 public class ObjectColumnProcessor extends AbstractObjectColumnProcessor<HtmlParsingContext> implements RowProcessor {
 
+	private final int initialCapacity;
+	private TypedColumns typedColumns;
+
 	/**
 	 * Constructs a column processor, pre-allocating room for 1000 rows.
 	 */
@@ -47,5 +51,66 @@ public class ObjectColumnProcessor extends AbstractObjectColumnProcessor<HtmlPar
 
 	public ObjectColumnProcessor(int expectedRowCount) {
 		super(expectedRowCount);
+		this.initialCapacity = expectedRowCount;
+	}
+
+	@Override
+	public void processStarted(HtmlParsingContext context) {
+		super.processStarted(context);
+		if (typedColumns != null) {
+			typedColumns.reset();
+		}
+	}
+
+	@Override
+	public void rowProcessed(Object[] row, HtmlParsingContext context) {
+		super.rowProcessed(row, context);
+		if (typedColumns != null) {
+			typedColumns.attach(getColumnValuesAsList(), context.headers());
+		}
+	}
+
+	/**
+	 * Indicates whether the values of numeric columns are stored in primitive arrays instead of lists of boxed
+	 * numbers. See {@link #setPrimitiveColumnsEnabled(boolean)}.
+	 *
+	 * Defaults to `false`.
+	 *
+	 * @return `true` if numeric values are stored in primitive arrays.
+	 */
+	public final boolean isPrimitiveColumnsEnabled() {
+		return typedColumns != null;
+	}
+
+	/**
+	 * Defines whether the values of numeric columns should be stored in primitive arrays instead of lists of boxed
+	 * numbers. When enabled, the lists returned by methods such as {@link #getColumnValuesAsList()} are backed by
+	 * {@link TypedColumns}, which keep each column of {@link Integer}s, {@link Long}s or {@link Double}s (or
+	 * {@link Short}s, {@link Byte}s and {@link Float}s) in an `int[]`, `long[]` or `double[]`. Values are only boxed
+	 * when read from the lists, and can be read without boxing from {@link #getPrimitiveColumns()}.
+	 *
+	 * Must be set before parsing. Defaults to `false`.
+	 *
+	 * @param primitiveColumnsEnabled flag indicating whether numeric values should be stored in primitive arrays.
+	 */
+	public final void setPrimitiveColumnsEnabled(boolean primitiveColumnsEnabled) {
+		if (!primitiveColumnsEnabled) {
+			typedColumns = null;
+		} else if (typedColumns == null) {
+			typedColumns = new TypedColumns(initialCapacity);
+		}
+	}
+
+	/**
+	 * Returns the primitive arrays with the values of numeric columns. Only available when
+	 * {@link #isPrimitiveColumnsEnabled()} is `true`.
+	 *
+	 * @return the columns of values collected so far.
+	 */
+	public final TypedColumns getPrimitiveColumns() {
+		if (typedColumns == null) {
+			throw new IllegalStateException("Primitive columns are not enabled. Use setPrimitiveColumnsEnabled(true) before parsing.");
+		}
+		return typedColumns;
 	}
 }
@@ -56,6 +56,10 @@ public interface RowProcessor extends Processor<HtmlParsingContext> {
 	/**
 	 * Invoked by the parser after all values of a valid record have been processed.
 	 *
+	 * If {@link HtmlParserSettings#setRowReuseEnabled(boolean)} is enabled and this processor implements
+	 * {@link RowReuseSupport}, the same array is given with the values of each record, so it must be copied if
+	 * it has to be kept after this method returns.
+	 *
 	 * @param row the data extracted by the parser for an individual record of a given entity. It will never by null.
 
 	 * @param context A contextual object with information and controls over the current state of the parsing process
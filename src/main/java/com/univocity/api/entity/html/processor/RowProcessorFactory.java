@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+
+/**
+ * Creates a new {@link RowProcessor} for each parsing process of an entity, so that processors which keep state
+ * while parsing (such as {@link BeanListProcessor}, {@link ObjectColumnProcessor} or {@link AggregationProcessor})
+ * are confined to a single parse, and a single {@link HtmlParser} can be shared by multiple threads.
+ *
+ * A factory is associated with an entity using {@link HtmlEntitySettings#setProcessorFactory(RowProcessorFactory)}.
+ * The parser invokes it once at the start of every call to a `parse` method, and once for every document parsed by
+ * `parseAll`, possibly from different threads at the same time. Implementations must be thread-safe, which is
+ * usually achieved by creating the processor and registering it somewhere thread-safe to collect its results, e.g.:
+ *
+ * ```java
+ * Queue<BeanListProcessor<Product>> processors = new ConcurrentLinkedQueue<>();
+ * entity.setProcessorFactory(entityName -> {
+ *     BeanListProcessor<Product> processor = new BeanListProcessor<>(Product.class);
+ *     processors.add(processor);
+ *     return processor;
+ * });
+ * ```
+ *
+ * If the factory implements {@link FieldConsumer}, it's used to identify the fields required by the processors it
+ * creates (see {@link HtmlEntitySettings#getRequiredFieldNames()}).
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlEntitySettings#setProcessorFactory(RowProcessorFactory)
+ */
+public interface RowProcessorFactory {
+
+	/**
+	 * Creates the processor that will receive the rows of an entity during one parsing process.
+	 *
+	 * @param entityName the name of the entity whose rows will be sent to the processor.
+	 *
+	 * @return a new processor, not shared with any other parsing process.
+	 */
+	RowProcessor newRowProcessor(String entityName);
+}
@@ -10,6 +10,8 @@ import com.univocity.api.entity.html.*;
 import com.univocity.parsers.common.*;
 import com.univocity.parsers.common.processor.core.*;
 
+import java.util.*;
+
 /**
  * A special {@link RowProcessor} implementation that combines and allows switching among different
  * RowProcessors. Each RowProcessor will have its own {@link HtmlParsingContext}. Concrete implementations of this class
@@ -19,7 +21,22 @@ import com.univocity.parsers.common.processor.core.*;
  *
  * When the row processor is switched, the {@link #processorSwitched(Processor, Processor)} will be called, and
  * must be overridden, to notify the change to the user.
+ *
+ * As the processors selected by {@link #switchRowProcessor(String[], Context)} are not known in advance, all fields
+ * are evaluated for the rows given to this switch. Subclasses that know the processors they switch to should
+ * override {@link #getConsumedFields(Set)}, so that fields not used by any processor can be skipped.
  */
-public abstract class RowProcessorSwitch extends AbstractProcessorSwitch<HtmlParsingContext> implements RowProcessor {
+public abstract class RowProcessorSwitch extends AbstractProcessorSwitch<HtmlParsingContext> implements RowProcessor, FieldConsumer {
 
+	/**
+	 * Returns the names of the fields read by this switch and by the processors it switches to.
+	 *
+	 * @param availableFields the names of all fields defined for the entity being parsed.
+	 *
+	 * @return `null`, as every field must be evaluated unless a subclass knows the processors it uses.
+	 */
+	@Override
+	public Set<String> getConsumedFields(Set<String> availableFields) {
+		return null;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+
+/**
+ * Allows a {@link RowProcessor} to inform the {@link HtmlParser} that it doesn't keep references to the `String[]`
+ * it receives in {@link RowProcessor#rowProcessed(String[], HtmlParsingContext)} after that method returns. When
+ * {@link HtmlParserSettings#setRowReuseEnabled(boolean)} is enabled, the parser sends rows to such processors in
+ * a buffer that is reused for every record, instead of allocating a new array per record.
+ *
+ * Processors that reuse rows must copy any values, or the whole row (with `row.clone()`), that they need to keep.
+ * Processors that don't implement this interface, or that return `false` from {@link #supportsRowReuse()},
+ * always receive a new array for each record.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see HtmlParserSettings#setRowReuseEnabled(boolean)
+ */
+public interface RowReuseSupport {
+
+	/**
+	 * Indicates whether this processor can receive the same `String[]` instance, with different values, for every
+	 * record parsed.
+	 *
+	 * @return `true` if the rows given to this processor are not kept after
+	 * {@link RowProcessor#rowProcessed(String[], HtmlParsingContext)} returns, otherwise `false`.
+	 */
+	boolean supportsRowReuse();
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A bounded, lock-free ring buffer that accepts elements from multiple producer threads and hands them over to a single
+ * consumer thread, in the order they were added. Used by {@link AsyncRowProcessor}.
+ *
+ * Elements are published and released with volatile writes, so a thread that sets a volatile flag before checking the
+ * buffer is guaranteed to either see the change or have its flag seen by the other side. This allows waiting
+ * threads to be signalled without missing wakeups.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+final class RowRingBuffer {
+
+	static final int MAX_CAPACITY = 1 << 30;
+
+	private final Object[] elements;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private long head;
+
+	/**
+	 * Creates a ring buffer that holds at least the given number of elements. The actual capacity is rounded up to the
+	 * next power of two.
+	 *
+	 * @param capacity the minimum number of elements the buffer can hold, up to 2^30.
+	 */
+	RowRingBuffer(int capacity) {
+		if (capacity < 1 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Buffer capacity must be between 1 and " + MAX_CAPACITY + ". Got " + capacity);
+		}
+		int size = 1;
+		while (size < capacity) {
+			size <<= 1;
+		}
+		this.elements = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		this.mask = size - 1;
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Returns the number of elements this buffer can hold.
+	 *
+	 * @return the capacity of this buffer
+	 */
+	int capacity() {
+		return elements.length;
+	}
+
+	/**
+	 * Adds an element to the buffer. Can be invoked by any thread.
+	 *
+	 * @param element the element to add
+	 *
+	 * @return `true` if the element was added, or `false` if the buffer is full.
+	 */
+	boolean offer(Object element) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) (position & mask);
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					elements[index] = element;
+					sequences.set(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest element of the buffer. Must only be invoked by the consumer thread.
+	 *
+	 * @return the oldest element, or `null` if the buffer is empty.
+	 */
+	Object poll() {
+		int index = (int) (head & mask);
+		if (sequences.get(index) - (head + 1) < 0) {
+			return null;
+		}
+		Object element = elements[index];
+		elements[index] = null;
+		sequences.set(index, head + mask + 1);
+		head++;
+		return element;
+	}
+}
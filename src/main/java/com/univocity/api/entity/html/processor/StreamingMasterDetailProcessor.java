@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+package com.univocity.api.entity.html.processor;
+
+import com.univocity.api.entity.html.*;
+import com.univocity.parsers.common.processor.*;
+import com.univocity.parsers.common.processor.core.*;
+import com.univocity.parsers.conversions.*;
+
+/**
+ * A {@link RowProcessor} implementation for handling rows extracted by the {@link HtmlParser} that are organized in a
+ * master-detail fashion, without accumulating the detail rows in memory.
+ *
+ * Unlike {@link MasterDetailProcessor}, which collects all detail rows of a master row into a
+ * {@link MasterDetailRecord}, this processor hands each detail row over to
+ * {@link #detailProcessed(Object[], Object[], HtmlParsingContext)} as soon as it is parsed. Only the current master
+ * row is kept in memory, which makes it suitable for pages with very long lists of details.
+ *
+ * For each row processed, a call to {@link #isMasterRecord(String[], HtmlParsingContext)} is made to identify whether
+ * or not it is a master row. Then, with the default {@link RowPlacement#TOP}:
+ *
+ * 1. {@link #masterStarted(Object[], HtmlParsingContext)} is invoked with each master row;
+ * 2. {@link #detailProcessed(Object[], Object[], HtmlParsingContext)} is invoked with each detail row that follows,
+ *    along with the current master row;
+ * 3. {@link #masterEnded(Object[], long, HtmlParsingContext)} is invoked when the next master row is found, or when
+ *    the parsing process ends.
+ *
+ * With {@link RowPlacement#BOTTOM}, the master row is only known after all its details were parsed, so detail rows
+ * are sent to {@link #detailProcessed(Object[], Object[], HtmlParsingContext)} with a `null` master row, and
+ * {@link #masterStarted(Object[], HtmlParsingContext)} and {@link #masterEnded(Object[], long, HtmlParsingContext)}
+ * are invoked in sequence once the master row is found.
+ *
+ * Detail rows parsed before the first master row (with {@link RowPlacement#TOP}), or after the last master row (with
+ * {@link RowPlacement#BOTTOM}), are also sent with a `null` master row.
+ *
+ * **Note** this class extends {@link ObjectRowProcessor} and value conversions provided by {@link Conversion}
+ * instances are fully supported, for master and detail rows alike.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ * @see MasterDetailProcessor
+ * @see RowPlacement
+ * @see HtmlParser
+ * @see RowProcessor
+ */
+public abstract class StreamingMasterDetailProcessor extends ObjectRowProcessor {
+
+	private final boolean masterOnTop;
+	private boolean masterRow;
+	private Object[] currentMaster;
+	private long detailCount;
+
+	/**
+	 * Creates a StreamingMasterDetailProcessor
+	 *
+	 * @param rowPlacement the location of the master row relative to its detail rows
+	 */
+	public StreamingMasterDetailProcessor(RowPlacement rowPlacement) {
+		this.masterOnTop = rowPlacement != RowPlacement.BOTTOM;
+	}
+
+	/**
+	 * Creates a StreamingMasterDetailProcessor.
+	 *
+	 * Default {@code rowPlacement} set to {@link RowPlacement#TOP}
+	 */
+	public StreamingMasterDetailProcessor() {
+		this(RowPlacement.TOP);
+	}
+
+	@Override
+	public void processStarted(HtmlParsingContext context) {
+		super.processStarted(context);
+		currentMaster = null;
+		detailCount = 0;
+	}
+
+	@Override
+	public final void rowProcessed(String[] row, HtmlParsingContext context) {
+		masterRow = isMasterRecord(row, context);
+		super.rowProcessed(row, context);
+	}
+
+	@Override
+	public final void rowProcessed(Object[] row, HtmlParsingContext context) {
+		if (!masterRow) {
+			detailCount++;
+			detailProcessed(currentMaster, row, context);
+		} else if (masterOnTop) {
+			endCurrentMaster(context);
+			currentMaster = row;
+			masterStarted(row, context);
+		} else {
+			masterStarted(row, context);
+			masterEnded(row, detailCount, context);
+			detailCount = 0;
+		}
+	}
+
+	@Override
+	public void processEnded(HtmlParsingContext context) {
+		try {
+			if (masterOnTop) {
+				endCurrentMaster(context);
+			}
+		} finally {
+			currentMaster = null;
+			detailCount = 0;
+			super.processEnded(context);
+		}
+	}
+
+	private void endCurrentMaster(HtmlParsingContext context) {
+		if (currentMaster != null) {
+			Object[] master = currentMaster;
+			currentMaster = null;
+			masterEnded(master, detailCount, context);
+		}
+		detailCount = 0;
+	}
+
+	/**
+	 * Queries whether or not the given row is a master record.
+	 *
+	 * @param row     the data parsed by the {@link HtmlParser} for an individual record.
+	 * @param context A contextual object with information and controls over the current state of the parsing process
+	 *
+	 * @return true if the row is a master record, false if it is a detail record.
+	 */
+	protected abstract boolean isMasterRecord(String[] row, HtmlParsingContext context);
+
+	/**
+	 * Invoked when a master row is found. With {@link RowPlacement#TOP}, its detail rows will follow. With
+	 * {@link RowPlacement#BOTTOM}, its detail rows have already been processed.
+	 *
+	 * Does nothing by default.
+	 *
+	 * @param masterRow the master row, after the conversions associated with this processor were applied.
+	 * @param context   A contextual object with information and controls over the current state of the parsing process
+	 */
+	protected void masterStarted(Object[] masterRow, HtmlParsingContext context) {
+	}
+
+	/**
+	 * Invoked for each detail row, as soon as it is parsed. The detail row is not kept by this processor.
+	 *
+	 * @param masterRow the master row associated with the detail row. Will be `null` with {@link RowPlacement#BOTTOM},
+	 *                  or if no master row was found before the detail row.
+	 * @param detailRow the detail row, after the conversions associated with this processor were applied.
+	 * @param context   A contextual object with information and controls over the current state of the parsing process
+	 */
+	protected abstract void detailProcessed(Object[] masterRow, Object[] detailRow, HtmlParsingContext context);
+
+	/**
+	 * Invoked after all detail rows of a master row were processed. With {@link RowPlacement#TOP}, this happens when
+	 * the next master row is found, or when the parsing process ends. With {@link RowPlacement#BOTTOM}, this happens
+	 * right after {@link #masterStarted(Object[], HtmlParsingContext)}.
+	 *
+	 * Does nothing by default.
+	 *
+	 * @param masterRow   the master row, after the conversions associated with this processor were applied.
+	 * @param detailCount the number of detail rows associated with the master row.
+	 * @param context     A contextual object with information and controls over the current state of the parsing process
+	 */
+	protected void masterEnded(Object[] masterRow, long detailCount, HtmlParsingContext context) {
+	}
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2013 Univocity Software Pty Ltd. All rights reserved.
+ * This file is subject to the terms and conditions defined in file
+ * 'LICENSE.txt', which is part of this source code package.
+ */
+
+package com.univocity.api.entity.html.processor;
+
+import java.util.*;
+
+/**
+ * Column storage that keeps numeric values in primitive arrays, one per column, with a bitmap to identify `null`s.
+ * Used by {@link ObjectColumnProcessor} and {@link BatchedObjectColumnProcessor} when
+ * {@link ObjectColumnProcessor#setPrimitiveColumnsEnabled(boolean)} is enabled, to avoid keeping a boxed object for
+ * every number parsed.
+ *
+ * The lists of column values of the processor are backed by this storage: values are boxed only when read from the
+ * lists returned by methods such as {@link ObjectColumnProcessor#getColumnValuesAsList()}, and can be read without
+ * boxing through {@link #getIntColumn(String)}, {@link #getLongColumn(String)}, {@link #getDoubleColumn(String)} and
+ * {@link #getNullValues(String)}.
+ *
+ * The type of each column is defined by its first non-null value: `int` for {@link Integer}, {@link Short} and
+ * {@link Byte}; `long` for {@link Long}; `double` for {@link Double} and {@link Float}. Values read from the lists
+ * have the same type they had when added. Once a column receives a value of a different type, it falls back to
+ * storing objects, and its values are only available through the lists.
+ *
+ * @author Univocity Software Pty Ltd - <a href="mailto:dev@univocity.com">dev@univocity.com</a>
+ */
+public final class TypedColumns {
+
+	private final int initialCapacity;
+	private List<List<Object>> columnValues;
+	private Column[] columns = new Column[0];
+	private String[] headers;
+
+	/**
+	 * Creates a new set of typed columns
+	 *
+	 * @param initialCapacity the number of rows to pre-allocate room for.
+	 */
+	TypedColumns(int initialCapacity) {
+		this.initialCapacity = initialCapacity < 1 ? 16 : initialCapacity;
+	}
+
+	/**
+	 * Discards all columns and headers.
+	 */
+	void reset() {
+		columnValues = null;
+		columns = new Column[0];
+		headers = null;
+	}
+
+	/**
+	 * Replaces the lists of column values of a processor with lists backed by primitive arrays. Only new lists are
+	 * replaced, so this can be invoked after every row.
+	 *
+	 * @param columnValues the lists of values of each column, as kept by the processor.
+	 * @param headers      the headers of the current input, if any.
+	 */
+	void attach(List<List<Object>> columnValues, String[] headers) {
+		if (columnValues == null || (columnValues == this.columnValues && columnValues.size() == columns.length)) {
+			return;
+		}
+		if (columnValues != this.columnValues) {
+			this.columnValues = columnValues;
+			this.columns = new Column[0];
+		}
+		if (headers != null) {
+			this.headers = headers;
+		}
+
+		int start = columns.length;
+		columns = Arrays.copyOf(columns, columnValues.size());
+		for (int i = start; i < columns.length; i++) {
+			List<Object> values = columnValues.get(i);
+			if (values instanceof Column) {
+				columns[i] = (Column) values;
+				continue;
+			}
+			Column column = new Column(Math.max(initialCapacity, values.size()));
+			column.addAll(values);
+			try {
+				columnValues.set(i, column);
+				columns[i] = column;
+			} catch (UnsupportedOperationException e) {
+				//can't replace the list: values stay boxed.
+			}
+		}
+	}
+
+	/**
+	 * Returns the values of a column of `int`s. `null` values are represented as `0` (use {@link #getNullValues(String)}
+	 * to identify them).
+	 *
+	 * @param columnName the name of the column
+	 *
+	 * @return a copy of the values collected for the given column
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold `int` values.
+	 */
+	public int[] getIntColumn(String columnName) {
+		return getIntColumn(indexOf(columnName));
+	}
+
+	/**
+	 * Returns the values of a column of `int`s. `null` values are represented as `0` (use {@link #getNullValues(int)}
+	 * to identify them).
+	 *
+	 * @param columnIndex the position of the column
+	 *
+	 * @return a copy of the values collected for the given column
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold `int` values.
+	 */
+	public int[] getIntColumn(int columnIndex) {
+		Column column = column(columnIndex, "int");
+		if (column.type == Column.INT) {
+			return Arrays.copyOf(column.ints, column.size);
+		}
+		if (column.type == Column.NONE) {
+			return new int[column.size];
+		}
+		throw notOfType(columnIndex, column, "int");
+	}
+
+	/**
+	 * Returns the values of a column of `long`s, or of `int`s widened to `long`. `null` values are represented as
+	 * `0` (use {@link #getNullValues(String)} to identify them).
+	 *
+	 * @param columnName the name of the column
+	 *
+	 * @return a copy of the values collected for the given column
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold `long` or `int` values.
+	 */
+	public long[] getLongColumn(String columnName) {
+		return getLongColumn(indexOf(columnName));
+	}
+
+	/**
+	 * Returns the values of a column of `long`s, or of `int`s widened to `long`. `null` values are represented as
+	 * `0` (use {@link #getNullValues(int)} to identify them).
+	 *
+	 * @param columnIndex the position of the column
+	 *
+	 * @return a copy of the values collected for the given column
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold `long` or `int` values.
+	 */
+	public long[] getLongColumn(int columnIndex) {
+		Column column = column(columnIndex, "long");
+		if (column.type == Column.LONG) {
+			return Arrays.copyOf(column.longs, column.size);
+		}
+		long[] out = new long[column.size];
+		if (column.type == Column.INT) {
+			for (int i = 0; i < out.length; i++) {
+				out[i] = column.ints[i];
+			}
+		} else if (column.type != Column.NONE) {
+			throw notOfType(columnIndex, column, "long");
+		}
+		return out;
+	}
+
+	/**
+	 * Returns the values of a numeric column as `double`s. `null` values are represented as `0` (use
+	 * {@link #getNullValues(String)} to identify them).
+	 *
+	 * @param columnName the name of the column
+	 *
+	 * @return a copy of the values collected for the given column
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold numeric values.
+	 */
+	public double[] getDoubleColumn(String columnName) {
+		return getDoubleColumn(indexOf(columnName));
+	}
+
+	/**
+	 * Returns the values of a numeric column as `double`s. `null` values are represented as `0` (use
+	 * {@link #getNullValues(int)} to identify them).
+	 *
+	 * @param columnIndex the position of the column
+	 *
+	 * @return a copy of the values collected for the given column
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold numeric values.
+	 */
+	public double[] getDoubleColumn(int columnIndex) {
+		Column column = column(columnIndex, "double");
+		if (column.type == Column.DOUBLE) {
+			return Arrays.copyOf(column.doubles, column.size);
+		}
+		double[] out = new double[column.size];
+		if (column.type == Column.INT) {
+			for (int i = 0; i < out.length; i++) {
+				out[i] = column.ints[i];
+			}
+		} else if (column.type == Column.LONG) {
+			for (int i = 0; i < out.length; i++) {
+				out[i] = column.longs[i];
+			}
+		} else if (column.type != Column.NONE) {
+			throw notOfType(columnIndex, column, "double");
+		}
+		return out;
+	}
+
+	/**
+	 * Identifies the rows with `null` values in a column collected into a primitive array.
+	 *
+	 * @param columnName the name of the column
+	 *
+	 * @return a {@link BitSet} with the indexes of the rows whose value is `null` in the given column.
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold numeric values.
+	 */
+	public BitSet getNullValues(String columnName) {
+		return getNullValues(indexOf(columnName));
+	}
+
+	/**
+	 * Identifies the rows with `null` values in a column collected into a primitive array.
+	 *
+	 * @param columnIndex the position of the column
+	 *
+	 * @return a {@link BitSet} with the indexes of the rows whose value is `null` in the given column.
+	 *
+	 * @throws IllegalArgumentException if the column doesn't hold numeric values.
+	 */
+	public BitSet getNullValues(int columnIndex) {
+		Column column = column(columnIndex, "primitive");
+		if (column.type == Column.OBJECT) {
+			throw notOfType(columnIndex, column, "primitive");
+		}
+		return BitSet.valueOf(Arrays.copyOf(column.nulls, (column.size + 63) >> 6));
+	}
+
+	private Column column(int columnIndex, String type) {
+		if (columnIndex < 0) {
+			throw new IllegalArgumentException("Column index must be positive. Got " + columnIndex);
+		}
+		if (columnIndex >= columns.length) {
+			if (columns.length == 0 || (headers != null && columnIndex < headers.length)) {
+				return new Column(0);
+			}
+			throw new IllegalArgumentException("Column index " + columnIndex + " is out of bounds. Rows have " + columns.length + " columns");
+		}
+		Column column = columns[columnIndex];
+		if (column == null) {
+			throw new IllegalArgumentException("Column " + columnName(columnIndex) + " does not hold " + type + " values");
+		}
+		return column;
+	}
+
+	private int indexOf(String columnName) {
+		if (columnName != null && headers != null) {
+			for (int i = 0; i < headers.length; i++) {
+				if (columnName.equals(headers[i])) {
+					return i;
+				}
+			}
+			for (int i = 0; i < headers.length; i++) {
+				if (headers[i] != null && columnName.trim().equalsIgnoreCase(headers[i].trim())) {
+					return i;
+				}
+			}
+		}
+		throw new IllegalArgumentException("Unknown column '" + columnName + "'. Available columns are: " + Arrays.toString(headers));
+	}
+
+	private IllegalArgumentException notOfType(int columnIndex, Column column, String type) {
+		return new IllegalArgumentException("Column " + columnName(columnIndex) + " does not hold " + type + " values. Values stored are of type " + column.typeName());
+	}
+
+	private String columnName(int columnIndex) {
+		if (headers != null && columnIndex < headers.length && headers[columnIndex] != null) {
+			return "'" + headers[columnIndex] + "'";
+		}
+		return "at index " + columnIndex;
+	}
+
+	/**
+	 * The values of a column. Numbers of a single type are kept in a primitive array and boxed on demand. Any other
+	 * value makes the column fall back to a list of objects.
+	 */
+	private static final class Column extends AbstractList<Object> implements RandomAccess {
+
+		static final int NONE = 0;
+		static final int INT = 1;
+		static final int LONG = 2;
+		static final int DOUBLE = 3;
+		static final int OBJECT = 4;
+
+		int type = NONE;
+		Class<?> valueType;
+		int size;
+		int[] ints;
+		long[] longs;
+		double[] doubles;
+		long[] nulls;
+		List<Object> objects;
+
+		Column(int capacity) {
+			nulls = new long[(capacity + 63) >> 6];
+		}
+
+		@Override
+		public int size() {
+			return type == OBJECT ? objects.size() : size;
+		}
+
+		@Override
+		public Object get(int index) {
+			if (type == OBJECT) {
+				return objects.get(index);
+			}
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			if ((nulls[index >> 6] & (1L << index)) != 0) {
+				return null;
+			}
+			if (type == INT) {
+				int value = ints[index];
+				if (valueType == Short.class) {
+					return (short) value;
+				}
+				if (valueType == Byte.class) {
+					return (byte) value;
+				}
+				return value;
+			}
+			if (type == LONG) {
+				return longs[index];
+			}
+			double value = doubles[index];
+			if (valueType == Float.class) {
+				return (float) value;
+			}
+			return value;
+		}
+
+		@Override
+		public boolean add(Object value) {
+			if (type == OBJECT) {
+				return objects.add(value);
+			}
+			ensureCapacity(size + 1);
+			if (!store(size, value)) {
+				toObject();
+				return objects.add(value);
+			}
+			size++;
+			modCount++;
+			return true;
+		}
+
+		@Override
+		public Object set(int index, Object value) {
+			Object previous = get(index);
+			if (type == OBJECT) {
+				objects.set(index, value);
+			} else if (!store(index, value)) {
+				toObject();
+				objects.set(index, value);
+			}
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			type = NONE;
+			valueType = null;
+			size = 0;
+			ints = null;
+			longs = null;
+			doubles = null;
+			objects = null;
+			if (nulls == null) {
+				nulls = new long[1];
+			} else {
+				Arrays.fill(nulls, 0L);
+			}
+			modCount++;
+		}
+
+		private boolean store(int index, Object value) {
+			if (value == null) {
+				nulls[index >> 6] |= 1L << index;
+				return true;
+			}
+			if (value.getClass() != valueType) {
+				if (type != NONE) {
+					return false;
+				}
+				if (!initialize(value.getClass())) {
+					return false;
+				}
+			}
+			nulls[index >> 6] &= ~(1L << index);
+			if (type == INT) {
+				ints[index] = ((Number) value).intValue();
+			} else if (type == LONG) {
+				longs[index] = ((Number) value).longValue();
+			} else {
+				doubles[index] = ((Number) value).doubleValue();
+			}
+			return true;
+		}
+
+		private boolean initialize(Class<?> valueType) {
+			int capacity = nulls.length << 6;
+			if (valueType == Integer.class || valueType == Short.class || valueType == Byte.class) {
+				type = INT;
+				ints = new int[capacity];
+			} else if (valueType == Long.class) {
+				type = LONG;
+				longs = new long[capacity];
+			} else if (valueType == Double.class || valueType == Float.class) {
+				type = DOUBLE;
+				doubles = new double[capacity];
+			} else {
+				return false;
+			}
+			this.valueType = valueType;
+			return true;
+		}
+
+		private void toObject() {
+			List<Object> values = new ArrayList<Object>(Math.max(size + 1, 16));
+			for (int i = 0; i < size; i++) {
+				values.add(get(i));
+			}
+			objects = values;
+			type = OBJECT;
+			ints = null;
+			longs = null;
+			doubles = null;
+			nulls = null;
+			modCount++;
+		}
+
+		private void ensureCapacity(int required) {
+			int capacity = nulls.length << 6;
+			if (required <= capacity) {
+				return;
+			}
+			int newCapacity = Math.max(required, capacity + (capacity >> 1));
+			nulls = Arrays.copyOf(nulls, (newCapacity + 63) >> 6);
+			newCapacity = nulls.length << 6;
+			if (ints != null) {
+				ints = Arrays.copyOf(ints, newCapacity);
+			} else if (longs != null) {
+				longs = Arrays.copyOf(longs, newCapacity);
+			} else if (doubles != null) {
+				doubles = Arrays.copyOf(doubles, newCapacity);
+			}
+		}
+
+		String typeName() {
+			switch (type) {
+				case INT:
+					return "int";
+				case LONG:
+					return "long";
+				case DOUBLE:
+					return "double";
+				case OBJECT:
+					return "Object";
+				default:
+					return "null";
+			}
+		}
+	}
+}